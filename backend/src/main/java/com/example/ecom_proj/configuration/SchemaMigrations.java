@@ -0,0 +1,131 @@
+package com.example.ecom_proj.configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the one-time migrations in classpath:db/migration (V&lt;n&gt;__&lt;description&gt;.sql), in version
+ * order, each exactly once, and records them in schema_migration.
+ *
+ * NOTE:
+ *  - schema.sql keeps the DDL that is safe to repeat on every start; steps that rewrite data or column
+ *    definitions (identity → sequence, setval, NOT NULL backfills) belong here, so they run once.
+ *  - Each migration runs in its own transaction under an advisory lock, so instances starting together
+ *    apply it once. Any error rolls it back and fails the startup.
+ *  - One-time data tasks written in Java (e.g. backfilling a new projection) use {@link #runOnce}, and
+ *    are recorded in the same table under their name.
+ *  - Runs after Hibernate's ddl-auto (the EntityManagerFactory is a dependency), since the migrations
+ *    alter tables Hibernate creates. With ddl-auto=validate, validation comes first: apply a new
+ *    migration with psql before deploying (the runner then finds the change already made and only
+ *    records it, as every migration is written to be idempotent).
+ */
+@Component
+public class SchemaMigrations {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    // Arbitrary key for pg_advisory_xact_lock, shared by every instance
+    private static final long LOCK_KEY = 0x5c4e_4d41L;
+
+    record Migration(int version, String description, Resource script) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() throws IOException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migration ("
+                + "version varchar(100) PRIMARY KEY, "
+                + "description varchar(255) NOT NULL, "
+                + "applied_at timestamp(6) NOT NULL DEFAULT now())");
+        for (Migration migration : find(resolver.getResources(LOCATION))) {
+            apply(migration);
+        }
+    }
+
+    /**
+     * Run work once per database, in one transaction with its schema_migration row.
+     *
+     * @return whether it ran now (false: already done, by this or another instance)
+     */
+    public boolean runOnce(String version, String description, Runnable work) {
+        Boolean ran = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            if (isApplied(version)) {
+                return false;
+            }
+            work.run();
+            jdbcTemplate.update("INSERT INTO schema_migration (version, description) VALUES (?, ?)",
+                    version, description);
+            log.info("Applied schema migration {} ({})", version, description);
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void apply(Migration migration) {
+        runOnce(String.valueOf(migration.version()), migration.description(), () ->
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    ScriptUtils.executeSqlScript(connection, migration.script());
+                    return null;
+                }));
+    }
+
+    private boolean isApplied(String version) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schema_migration WHERE version = ?", Integer.class, version);
+        return count != null && count > 0;
+    }
+
+    /**
+     * The migrations among the given scripts, in version order. Duplicate versions are an error.
+     */
+    static List<Migration> find(Resource[] scripts) {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource script : scripts) {
+            Matcher m = FILE_NAME.matcher(String.valueOf(script.getFilename()));
+            if (!m.matches()) {
+                throw new IllegalStateException("Not a migration file name: " + script.getFilename());
+            }
+            migrations.add(new Migration(Integer.parseInt(m.group(1)), m.group(2).replace('_', ' '), script));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate schema migration version V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ecom_proj.configuration;
 
 import com.example.ecom_proj.security.JwtAuthenticationFilter;
 import com.example.ecom_proj.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -73,6 +74,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatches of already authorized requests (event streams, exports)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/", "/health").permitAll()
                         .requestMatchers("/auth/login", "/auth/register", "/auth/check" ).permitAll()
                         .requestMatchers("/auth/logout", "/auth/me", "/auth/change-password").authenticated()
@@ -27,11 +27,12 @@ public class AssetCategoryController {
     }
 
     /**
-     * GET /asset-categories - Get all categories
+     * GET /asset-categories?byStatus=false - Get all categories with asset counts (per status with byStatus=true)
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AssetCategoryDTO>>> getAllCategories() {
-        List<AssetCategoryDTO> categories = service.getAllAssetCategories();
+    public ResponseEntity<ApiResponse<List<AssetCategoryDTO>>> getAllCategories(
+            @RequestParam(required = false, defaultValue = "false") Boolean byStatus) {
+        List<AssetCategoryDTO> categories = service.getAllAssetCategories(byStatus);
         return ResponseEntity.ok(
                 ApiResponse.success("Categories retrieved successfully", categories)
         );
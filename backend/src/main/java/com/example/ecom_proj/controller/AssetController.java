@@ -1,18 +1,25 @@
 package com.example.ecom_proj.controller;
 
 import com.example.ecom_proj.dto.ApiResponse;
+import com.example.ecom_proj.dto.AssetImportResult;
 import com.example.ecom_proj.dto.AssetSearchCriteria;
 import com.example.ecom_proj.dto.PageResponse;
 import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.service.AssetHolderService;
+import com.example.ecom_proj.service.AssetImportService;
 import com.example.ecom_proj.service.AssetService;
+import com.example.ecom_proj.service.ExportService;
 import com.example.ecom_proj.service.FileStorageService;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -23,11 +30,15 @@ public class AssetController {
 
     private final AssetService service;
     private final FileStorageService fileStorageService;
+    private final AssetHolderService holderService;
+    private final AssetImportService importService;
 
 
-    public AssetController(AssetService service, FileStorageService fileStorageService) {
+    public AssetController(AssetService service, FileStorageService fileStorageService, AssetHolderService holderService, AssetImportService importService) {
         this.service = service;
         this.fileStorageService = fileStorageService;
+        this.holderService = holderService;
+        this.importService = importService;
     }
 
     /**
@@ -40,6 +51,24 @@ public class AssetController {
         );
     }
 
+    /**
+     * GET /assets with Accept: application/x-ndjson - Stream every asset as NDJSON, one object per line
+     * GET /assets?format=csv|ndjson - Same, as a CSV download or NDJSON
+     *
+     * Rows are read from a database cursor and written as they arrive (constant memory);
+     * plain GET /assets keeps returning the ApiResponse list.
+     */
+    @GetMapping(produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAssets() {
+        return exportAssets("ndjson");
+    }
+
+    @GetMapping(params = "format")
+    public ResponseEntity<StreamingResponseBody> exportAssets(@RequestParam String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.response(exportFormat, "assets", service.exportAssets(exportFormat));
+    }
+
     /**
      * GET /assets/search - Advanced search with filters and pagination
      *
@@ -58,12 +87,15 @@ public class AssetController {
      *   - sortDirection: ASC or DESC
      *   - page: Page number (0-based)
      *   - size: Page size (default: 10)
+     *   - cursor: Keyset cursor (pagination.nextCursor of the previous response); seeks instead of skipping rows
+     *   - includeTotal: Set to false to skip the COUNT query (totalElements/totalPages are then omitted)
      *
      * Examples:
      *   GET /assets/search?searchTerm=laptop
      *   GET /assets/search?status=AVAILABLE&page=0&size=20
      *   GET /assets/search?minCost=1000&maxCost=5000&sortBy=cost&sortDirection=ASC
      *   GET /assets/search?categoryName=Electronics&status=IN_USE
+     *   GET /assets/search?sortBy=name&sortDirection=ASC&cursor=<nextCursor>
      */
     @GetMapping("/search")
     public ResponseEntity<PageResponse<Asset>> searchAssets(
@@ -80,7 +112,9 @@ public class AssetController {
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false) String sortDirection,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") Boolean includeTotal) {
 
         AssetSearchCriteria criteria = AssetSearchCriteria.builder()
                 .searchTerm(searchTerm)
@@ -97,18 +131,13 @@ public class AssetController {
                 .sortDirection(sortDirection)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
                 .build();
 
-        Page<Asset> assetPage = service.searchAssets(criteria);
+        Slice<Asset> assetPage = service.searchAssets(criteria);
 
-        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.builder()
-                .currentPage(assetPage.getNumber())
-                .pageSize(assetPage.getSize())
-                .totalElements(assetPage.getTotalElements())
-                .totalPages(assetPage.getTotalPages())
-                .first(assetPage.isFirst())
-                .last(assetPage.isLast())
-                .build();
+        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.from(assetPage, cursor != null && !cursor.isBlank());
 
         PageResponse<Asset> response = PageResponse.of(assetPage.getContent(), metadata);
         response.setSuccess(true);
@@ -148,6 +177,45 @@ public class AssetController {
                 .body(ApiResponse.success("Asset created successfully", saved));
     }
 
+    /**
+     * POST /assets/import - Bulk create assets from a CSV file (Content-Type: text/csv) or a
+     * JSON array (Content-Type: application/json). Valid rows are imported; invalid rows are
+     * reported individually in the result.
+     *
+     * CSV header example:
+     *   name,serialNumber,categoryName,status,purchaseDate,cost,imageUrl
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<AssetImportResult>> importAssetsCsv(InputStream body) {
+        return importResponse(importService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/json")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<AssetImportResult>> importAssetsJson(InputStream body) {
+        return importResponse(importService.importJson(body));
+    }
+
+    private static ResponseEntity<ApiResponse<AssetImportResult>> importResponse(AssetImportResult result) {
+        String message = result.getFailed() == 0
+                ? "Assets imported successfully"
+                : "Assets imported with " + result.getFailed() + " rejected row(s)";
+        return ResponseEntity.ok(ApiResponse.success(message, result));
+    }
+
+    /**
+     * POST /assets/holders/rebuild - Regenerate the current-holder projection from the transaction log (ADMIN only)
+     */
+    @PostMapping("/holders/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildHolders() {
+        int rows = holderService.rebuild();
+        return ResponseEntity.ok(
+                ApiResponse.success("Asset holders rebuilt successfully", rows)
+        );
+    }
+
     @PostMapping(value = "/upload", consumes = "multipart/form-data")
     public ResponseEntity<ApiResponse<String>> uploadAssetImage(@RequestParam("file") MultipartFile file) {
         try {
@@ -11,9 +11,11 @@ import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.repository.AssetRepository;
 import com.example.ecom_proj.repository.UserRepository;
 import com.example.ecom_proj.service.AssetTransactionService;
-import org.springframework.data.domain.Page;
+import com.example.ecom_proj.service.ExportService;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,6 +43,24 @@ public class AssetTransactionController {
         );
     }
 
+    /**
+     * GET /asset-transactions with Accept: application/x-ndjson - Stream every asset transaction as NDJSON, one object per line
+     * GET /asset-transactions?format=csv|ndjson - Same, as a CSV download or NDJSON
+     *
+     * Rows are read from a database cursor and written as they arrive (constant memory);
+     * plain GET /asset-transactions keeps returning the ApiResponse list.
+     */
+    @GetMapping(produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions() {
+        return exportTransactions("ndjson");
+    }
+
+    @GetMapping(params = "format")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.response(exportFormat, "asset-transactions", service.exportTransactions(exportFormat));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<AssetTransaction>> getAssetTransactionById(@PathVariable Long id) {
         AssetTransaction transaction = service.getAssetTransactionById(id);
@@ -128,7 +148,9 @@ public class AssetTransactionController {
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false) String sortDirection,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") Boolean includeTotal) {
 
         AssetTransactionSearchCriteria criteria = AssetTransactionSearchCriteria.builder()
                 .searchTerm(searchTerm)
@@ -142,18 +164,13 @@ public class AssetTransactionController {
                 .sortDirection(sortDirection)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
                 .build();
 
-        Page<AssetTransaction> transactionPage = service.searchAssetsTransaction(criteria);
+        Slice<AssetTransaction> transactionPage = service.searchAssetsTransaction(criteria);
 
-        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.builder()
-                .currentPage(transactionPage.getNumber())
-                .pageSize(transactionPage.getSize())
-                .totalElements(transactionPage.getTotalElements())
-                .totalPages(transactionPage.getTotalPages())
-                .first(transactionPage.isFirst())
-                .last(transactionPage.isLast())
-                .build();
+        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.from(transactionPage, cursor != null && !cursor.isBlank());
 
         PageResponse<AssetTransaction> response = PageResponse.of(transactionPage.getContent(), metadata);
         response.setSuccess(true);
@@ -7,9 +7,11 @@ import com.example.ecom_proj.dto.PageResponse;
 import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.Audit;
 import com.example.ecom_proj.service.AuditService;
-import org.springframework.data.domain.Page;
+import com.example.ecom_proj.service.ExportService;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -32,6 +34,24 @@ public class AuditController {
         );
     }
 
+    /**
+     * GET /audits with Accept: application/x-ndjson - Stream every audit record as NDJSON, one object per line
+     * GET /audits?format=csv|ndjson - Same, as a CSV download or NDJSON
+     *
+     * Rows are read from a database cursor and written as they arrive (constant memory);
+     * plain GET /audits keeps returning the ApiResponse list.
+     */
+    @GetMapping(produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAudits() {
+        return exportAudits("ndjson");
+    }
+
+    @GetMapping(params = "format")
+    public ResponseEntity<StreamingResponseBody> exportAudits(@RequestParam String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.response(exportFormat, "audits", service.exportAudits(exportFormat));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<PageResponse<Audit>> searchAudits(
             @RequestParam(required = false) String searchTerm,
@@ -44,7 +64,9 @@ public class AuditController {
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false) String sortDirection,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") Boolean includeTotal) {
 
         // 🔹 Build criteria object
         AuditSearchCriteria criteria = AuditSearchCriteria.builder()
@@ -59,20 +81,15 @@ public class AuditController {
                 .sortDirection(sortDirection)
                 .page(page)
                 .size(size)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
                 .build();
 
         // 🔹 Call service
-        Page<Audit> auditPage = service.searchAudits(criteria);
+        Slice<Audit> auditPage = service.searchAudits(criteria);
 
         // 🔹 Build metadata
-        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.builder()
-                .currentPage(auditPage.getNumber())
-                .pageSize(auditPage.getSize())
-                .totalElements(auditPage.getTotalElements())
-                .totalPages(auditPage.getTotalPages())
-                .first(auditPage.isFirst())
-                .last(auditPage.isLast())
-                .build();
+        PageResponse.PageMetadata metadata = PageResponse.PageMetadata.from(auditPage, cursor != null && !cursor.isBlank());
 
         // 🔹 Build response
         PageResponse<Audit> response = PageResponse.of(auditPage.getContent(), metadata);
@@ -2,9 +2,9 @@
 package com.example.ecom_proj.controller;
 
 import com.example.ecom_proj.dto.*;
-import com.example.ecom_proj.model.Users;
-import com.example.ecom_proj.repository.UserRepository;
 import com.example.ecom_proj.service.AuthService;
+import com.example.ecom_proj.service.UserCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,11 +30,11 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public AuthController(AuthService authService, UserRepository userRepository) {
+    public AuthController(AuthService authService, UserCache userCache) {
         this.authService = authService;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     /**
@@ -58,8 +58,9 @@ public class AuthController {
      * }
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody AuthRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody AuthRequest request,
+                                                           HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(
                 ApiResponse.success("Login successful", response)
         );
@@ -90,8 +91,7 @@ public class AuthController {
      */
     @PostMapping("/logout")
     public ResponseEntity<ApiResponse<Void>> logout(Authentication authentication) {
-        String username = authentication.getName();
-        authService.logout(username);
+        authService.logout(authentication);
         return ResponseEntity.ok(
                 ApiResponse.success("Logout successful")
         );
@@ -142,15 +142,15 @@ public class AuthController {
                     .body(ApiResponse.error("Not authenticated"));
         }
 
-        Users user = userRepository.findByUsername(authentication.getName());
+        UserCache.Snapshot user = userCache.get(authentication.getName());
         if (user == null) {
             throw new RuntimeException("User not found");
         }
 
         Map<String, Object> userInfo = Map.of(
                 "username", authentication.getName(),
-                    "id", user.getId(),
-                "role",user.getRole().name(),
+                    "id", user.id(),
+                "role",user.role().name(),
                 "authorities", authentication.getAuthorities(),
                 "authenticated", authentication.isAuthenticated()
         );
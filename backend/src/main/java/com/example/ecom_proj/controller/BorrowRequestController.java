@@ -4,8 +4,8 @@ import com.example.ecom_proj.dto.ApiResponse;
 import com.example.ecom_proj.dto.BorrowRequestDTO;
 import com.example.ecom_proj.model.BorrowRequest;
 import com.example.ecom_proj.model.Users;
-import com.example.ecom_proj.repository.UserRepository;
 import com.example.ecom_proj.service.BorrowRequestService;
+import com.example.ecom_proj.service.UserCache;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,11 +33,11 @@ import java.util.stream.Collectors;
 public class BorrowRequestController {
 
     private final BorrowRequestService service;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public BorrowRequestController(BorrowRequestService service, UserRepository userRepository) {
+    public BorrowRequestController(BorrowRequestService service, UserCache userCache) {
         this.service = service;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @GetMapping("/my")
@@ -47,10 +47,11 @@ public class BorrowRequestController {
         }
 
         String username = authentication.getName();
-        Users user = userRepository.findByUsername(username);
-        if (user == null) {
+        UserCache.Snapshot snapshot = userCache.get(username);
+        if (snapshot == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("User not found"));
         }
+        Users user = snapshot.toUser();
 
         // NOTE: service returns domain objects; map to DTOs that include asset name and processedBy username
         List<BorrowRequest> results = service.listRequestsByRequester(user);
@@ -70,10 +71,11 @@ public class BorrowRequestController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Not authenticated"));
         }
         String username = authentication.getName();
-        Users user = userRepository.findByUsername(username);
-        if (user == null) {
+        UserCache.Snapshot snapshot = userCache.get(username);
+        if (snapshot == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("User not found"));
         }
+        Users user = snapshot.toUser();
 
         boolean cancelled = service.ReturnRequestByRequester(id, user);
         if (!cancelled) {
@@ -92,10 +94,11 @@ public class BorrowRequestController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Not authenticated"));
         }
         String username = authentication.getName();
-        Users user = userRepository.findByUsername(username);
-        if (user == null) {
+        UserCache.Snapshot snapshot = userCache.get(username);
+        if (snapshot == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("User not found"));
         }
+        Users user = snapshot.toUser();
 
         boolean cancelled = service.cancelRequestByRequester(id, user);
         if (!cancelled) {
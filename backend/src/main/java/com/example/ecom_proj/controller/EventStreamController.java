@@ -0,0 +1,35 @@
+package com.example.ecom_proj.controller;
+
+import com.example.ecom_proj.security.ActingUser;
+import com.example.ecom_proj.service.EventStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent events for the signed-in user:
+ * - GET /events/stream
+ *
+ * Events: "ready" on connect, "notification" for each new notification, and for ADMIN/STAFF
+ * "borrow-request" ({id, status}) whenever the pending queue changes. Comment lines are heartbeats.
+ * NOTE: The JWT goes in the Authorization header as on every other endpoint, so browsers need a
+ * fetch-based EventSource rather than the built-in one, which cannot set headers.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/events")
+public class EventStreamController {
+
+    private final EventStreamService eventStreamService;
+    private final ActingUser actingUser;
+
+    public EventStreamController(EventStreamService eventStreamService, ActingUser actingUser) {
+        this.eventStreamService = eventStreamService;
+        this.actingUser = actingUser;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return eventStreamService.subscribe(actingUser.require(), actingUser.token());
+    }
+}
@@ -1,40 +1,72 @@
 package com.example.ecom_proj.controller;
 
 import com.example.ecom_proj.dto.ApiResponse;
+import com.example.ecom_proj.dto.PageResponse;
 import com.example.ecom_proj.model.Notification;
-import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.security.ActingUser;
 import com.example.ecom_proj.service.NotificationService;
-import com.example.ecom_proj.service.UserService;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Minimal REST endpoints for notifications:
+ * - GET /notifications?size=20&unreadOnly=false&cursor=...  (the caller's inbox, newest first)
+ * - GET /notifications/unread-count
+ * - PUT /notifications/{id}/read
+ * - PUT /notifications/read?ids=1,2,3 | ?upTo=cursor | (none: all)  (one UPDATE, see NotificationService.markAllAsRead)
  */
 @RestController
 @CrossOrigin
 @RequestMapping("/notifications")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
-    private final UserService userService;
+    private final ActingUser actingUser;
 
-    public NotificationController(NotificationService notificationService, UserService userService) {
+    public NotificationController(NotificationService notificationService, ActingUser actingUser) {
         this.notificationService = notificationService;
-        this.userService = userService;
+        this.actingUser = actingUser;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Notification>>> list(@RequestParam Long userId) {
-        Users user = userService.getUserById(userId);
-        throw new UnsupportedOperationException("User not Found");
+    public ResponseEntity<PageResponse<Notification>> list(
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            @RequestParam(required = false, defaultValue = "false") Boolean unreadOnly,
+            @RequestParam(required = false) String cursor) {
+        Long userId = actingUser.require().id();
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Slice<Notification> page = notificationService.getInbox(userId, unreadOnly, pageSize, cursor);
+
+        PageResponse<Notification> response = PageResponse.of(page.getContent(),
+                PageResponse.PageMetadata.from(page, cursor != null && !cursor.isBlank()));
+        response.setMessage("Notifications retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> unreadCount() {
+        long count = notificationService.unreadCount(actingUser.require().id());
+        return ResponseEntity.ok(ApiResponse.success(Map.of("unread", count)));
     }
 
     @PutMapping("/{id}/read")
     public ResponseEntity<ApiResponse<String>> markRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+        notificationService.markAsRead(actingUser.require().id(), id);
         return ResponseEntity.ok(ApiResponse.success("Notification marked as read", null));
     }
+
+    @PutMapping("/read")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> markAllRead(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String upTo) {
+        int updated = notificationService.markAllAsRead(actingUser.require().id(), ids, upTo);
+        return ResponseEntity.ok(ApiResponse.success("Notifications marked as read", Map.of("updated", updated)));
+    }
 }
@@ -2,17 +2,24 @@ package com.example.ecom_proj.controller;
 
 
 import com.example.ecom_proj.dto.ApiResponse;
-import com.example.ecom_proj.repository.AssetRepository;
-import com.example.ecom_proj.repository.AssetTransactionRepository;
 import com.example.ecom_proj.repository.AuditRepository;
-import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.LoginThrottle;
+import com.example.ecom_proj.security.TokenDenylist;
+import com.example.ecom_proj.service.AssetCache;
+import com.example.ecom_proj.service.AuditWriter;
+import com.example.ecom_proj.service.DashboardCounterService;
+import com.example.ecom_proj.service.EventStreamService;
+import com.example.ecom_proj.service.NotificationRetentionService;
+import com.example.ecom_proj.service.OutboxDispatcher;
+import com.example.ecom_proj.service.PasswordHashingService;
 import com.example.ecom_proj.service.ReportService;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -21,21 +28,39 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService service;
-    private final AssetRepository assetRepo;
-    private final UserRepository userRepo;
-    private final AssetTransactionRepository txnRepo;
+    private final DashboardCounterService counters;
     private final AuditRepository auditRepo;
+    private final AssetCache assetCache;
+    private final AuditWriter auditWriter;
+    private final TokenDenylist tokenDenylist;
+    private final PasswordHashingService passwordHasher;
+    private final LoginThrottle loginThrottle;
+    private final OutboxDispatcher outboxDispatcher;
+    private final EventStreamService eventStreams;
+    private final NotificationRetentionService notificationRetention;
 
     public ReportController(ReportService service,
-                            AssetRepository assetRepo,
-                            UserRepository userRepo,
-                            AssetTransactionRepository txnRepo,
-                            AuditRepository auditRepo) {
+                            DashboardCounterService counters,
+                            AuditRepository auditRepo,
+                            AssetCache assetCache,
+                            AuditWriter auditWriter,
+                            TokenDenylist tokenDenylist,
+                            PasswordHashingService passwordHasher,
+                            LoginThrottle loginThrottle,
+                            OutboxDispatcher outboxDispatcher,
+                            EventStreamService eventStreams,
+                            NotificationRetentionService notificationRetention) {
         this.service = service;
-        this.assetRepo = assetRepo;
-        this.userRepo = userRepo;
-        this.txnRepo = txnRepo;
+        this.counters = counters;
         this.auditRepo = auditRepo;
+        this.assetCache = assetCache;
+        this.auditWriter = auditWriter;
+        this.tokenDenylist = tokenDenylist;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
+        this.outboxDispatcher = outboxDispatcher;
+        this.eventStreams = eventStreams;
+        this.notificationRetention = notificationRetention;
     }
 
     @GetMapping("/asset-summary")
@@ -43,21 +68,92 @@ public class ReportController {
         return ApiResponse.success(service.getAssetSummary());
     }
 
+    /**
+     * GET /reports/asset-summary/breakdown - Count and total cost per category × status
+     */
+    @GetMapping("/asset-summary/breakdown")
+    public ApiResponse<?> getAssetSummaryBreakdown() {
+        return ApiResponse.success(service.getCategoryStatusBreakdown());
+    }
+
     @GetMapping("/transactions/recent")
     public ApiResponse<?> getRecentTransactions() {
         return ApiResponse.success(service.getRecentTransactions());
     }
 
+    /**
+     * GET /reports/dashboard - Totals from the in-memory counters (see countersStalenessSeconds) plus recent audits
+     */
     @GetMapping("/dashboard")
     public ApiResponse<?> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalAssets", assetRepo.count());
-        stats.put("totalUsers", userRepo.count());
-        stats.put("totalTransactions", txnRepo.count());
+        Map<String, Object> stats = counters.snapshot();
         stats.put("recentAudits", auditRepo.findTop5ByOrderByPerformedAtDesc());
         return ApiResponse.success(stats);
     }
 
+    /**
+     * GET /reports/cache-stats - Asset cache hit/miss/eviction counters (ADMIN only)
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getCacheStats() {
+        return ApiResponse.success(assetCache.stats());
+    }
+
+    /**
+     * GET /reports/audit-writer - Async audit queue depth and counters (ADMIN only)
+     */
+    @GetMapping("/audit-writer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getAuditWriterStats() {
+        return ApiResponse.success(auditWriter.stats());
+    }
+
+    /**
+     * GET /reports/token-denylist - Revoked (logged-out) token count and last sync (ADMIN only)
+     */
+    @GetMapping("/token-denylist")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getTokenDenylistStats() {
+        return ApiResponse.success(tokenDenylist.stats());
+    }
+
+    /**
+     * GET /reports/auth-load - Password hashing pool (queue depth, hash latency) and login throttle counters (ADMIN only)
+     */
+    @GetMapping("/auth-load")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getAuthLoadStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashing", passwordHasher.stats());
+        stats.put("loginThrottle", loginThrottle.stats());
+        return ApiResponse.success(stats);
+    }
+
+    /**
+     * GET /reports/outbox - Pending and dead outbox events, delivery counters (ADMIN only)
+     */
+    @GetMapping("/outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getOutboxStats() {
+        return ApiResponse.success(outboxDispatcher.stats());
+    }
 
+    /**
+     * GET /reports/event-streams - Open SSE connections and slow-client disconnects (ADMIN only)
+     */
+    @GetMapping("/event-streams")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getEventStreamStats() {
+        return ApiResponse.success(eventStreams.stats());
+    }
 
+    /**
+     * GET /reports/notification-retention - Retention settings and read notifications removed so far (ADMIN only)
+     */
+    @GetMapping("/notification-retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<?> getNotificationRetentionStats() {
+        return ApiResponse.success(notificationRetention.stats());
+    }
 }
@@ -7,12 +7,14 @@ import com.example.ecom_proj.dto.UserSearchCriteria;
 import com.example.ecom_proj.dto.UserUpdateDTO;
 import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.service.UserService;
+import com.example.ecom_proj.service.ExportService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,6 +42,24 @@ public class UserController {
         );
     }
 
+    /**
+     * GET /users with Accept: application/x-ndjson - Stream every user as NDJSON, one object per line
+     * GET /users?format=csv|ndjson - Same, as a CSV download or NDJSON
+     *
+     * Rows are read from a database cursor and written as they arrive (constant memory);
+     * plain GET /users keeps returning the ApiResponse list.
+     */
+    @GetMapping(produces = ExportService.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return exportUsers("ndjson");
+    }
+
+    @GetMapping(params = "format")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.response(exportFormat, "users", service.exportUsers(exportFormat));
+    }
+
     /**
      * GET /users/search - Search users with pagination
      *
@@ -1,11 +1,15 @@
 package com.example.ecom_proj.dto;
 
+import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.AssetCategory;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,6 +21,10 @@ public class AssetCategoryDTO {
     private String iconUrl;
     private int assetCount;
 
+    // Asset count per status; only present when the breakdown was requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Asset.AssetStatus, Long> statusCounts;
+
     public AssetCategoryDTO(AssetCategory category, int assetCount) {
         this.id = category.getId();
         this.name = category.getName();
@@ -24,4 +32,13 @@ public class AssetCategoryDTO {
         this.iconUrl = category.getIconUrl();
         this.assetCount = assetCount; // use count directly
     }
+
+    // Used by the JPQL constructor expression in AssetCategoryRepository.findAllWithAssetCounts
+    public AssetCategoryDTO(Long id, String name, String description, String iconUrl, Long assetCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.iconUrl = iconUrl;
+        this.assetCount = assetCount != null ? assetCount.intValue() : 0;
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.ecom_proj.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk asset import. Rows are numbered from 1 (CSV: the first line after the header).
+ */
+@Data
+@Builder
+public class AssetImportResult {
+    private int received;
+    private int imported;
+    private int failed;
+    private long durationMs;
+    private long rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated; // only the first errors are listed; "failed" has the full count
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String serialNumber;
+        private String message;
+    }
+}
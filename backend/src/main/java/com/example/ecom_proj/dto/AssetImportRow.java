@@ -0,0 +1,40 @@
+package com.example.ecom_proj.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * One row of a bulk asset import (POST /assets/import), from a CSV line or a JSON array element.
+ *
+ * Category is given either by id or by name; JSON rows may also use the nested
+ * "category": {"id": ...} shape that POST /assets accepts.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AssetImportRow {
+    private String name;
+    private String serialNumber;
+    private Long categoryId;
+    private String categoryName;
+    private String status;
+    private LocalDate purchaseDate;
+    private Double cost;
+    private String imageUrl;
+
+    @JsonProperty("category")
+    private void unpackCategory(Map<String, Object> category) {
+        if (category == null) return;
+        if (category.get("id") instanceof Number id) {
+            this.categoryId = id.longValue();
+        }
+        if (category.get("name") instanceof String categoryName) {
+            this.categoryName = categoryName;
+        }
+    }
+}
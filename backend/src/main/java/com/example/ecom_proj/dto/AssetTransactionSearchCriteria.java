@@ -35,4 +35,10 @@ public class AssetTransactionSearchCriteria {
     // Pagination
     private Integer page;  // 0-based page number
     private Integer size;  // page size
+
+    // Keyset pagination - opaque cursor from a previous response's nextCursor
+    private String cursor;
+
+    // Whether to run the COUNT(*) query for totalElements/totalPages (offset mode only)
+    private Boolean includeTotal;
 }
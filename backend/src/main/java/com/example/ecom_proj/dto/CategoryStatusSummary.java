@@ -0,0 +1,28 @@
+package com.example.ecom_proj.dto;
+
+import com.example.ecom_proj.model.Asset;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the category × status asset report: how many assets of a category are in a status,
+ * and what they cost in total.
+ */
+@Data
+@NoArgsConstructor
+public class CategoryStatusSummary {
+    private Long categoryId;
+    private String categoryName;
+    private Asset.AssetStatus status;
+    private long assetCount;
+    private double totalCost;
+
+    // Used by the JPQL constructor expression in AssetRepository.summarizeByCategoryAndStatus
+    public CategoryStatusSummary(Long categoryId, String categoryName, Asset.AssetStatus status, Long assetCount, Double totalCost) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.status = status;
+        this.assetCount = assetCount != null ? assetCount : 0;
+        this.totalCost = totalCost != null ? totalCost : 0; // SUM is null when no asset has a cost
+    }
+}
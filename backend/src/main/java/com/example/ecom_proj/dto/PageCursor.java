@@ -0,0 +1,88 @@
+package com.example.ecom_proj.dto;
+
+import com.example.ecom_proj.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset cursor: the sort key, its direction, and the (sort value, id) of the last row
+ * a client has seen. The next page starts strictly after that row.
+ *
+ * Clients must treat the encoded form as opaque — only this class reads it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "\n";
+    private static final String NULL_VALUE = "\u0000";
+
+    private String sortKey;
+    private Sort.Direction direction;
+    private String value;   // sort value of the last row, null if the row had no value
+    private Long id;        // id of the last row (tie-breaker)
+
+    /**
+     * Cursor pointing after the last row of the slice, or null when there is no next page.
+     * The slice's first sort order is the keyset sort key.
+     */
+    public static String next(Slice<?> slice) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return null;
+        }
+        Sort.Order order = slice.getSort().stream().findFirst()
+                .orElse(Sort.Order.desc("id"));
+
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(slice.getContent().get(slice.getNumberOfElements() - 1));
+        Object sortValue = last.getPropertyValue(order.getProperty());
+        Long id = (Long) last.getPropertyValue("id");
+
+        return new PageCursor(
+                order.getProperty(),
+                order.getDirection(),
+                sortValue == null ? null : stringify(sortValue),
+                id
+        ).encode();
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                sortKey,
+                direction.name(),
+                String.valueOf(id),
+                value == null ? NULL_VALUE : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> parts = List.of(raw.split(SEPARATOR, 4));
+            if (parts.size() != 4) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new PageCursor(
+                    parts.get(0),
+                    Sort.Direction.valueOf(parts.get(1)),
+                    NULL_VALUE.equals(parts.get(3)) ? null : parts.get(3),
+                    Long.valueOf(parts.get(2))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static String stringify(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+}
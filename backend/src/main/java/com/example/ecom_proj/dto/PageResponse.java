@@ -1,9 +1,12 @@
 package com.example.ecom_proj.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,13 +31,33 @@ public class PageResponse<T> {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PageMetadata {
         private int currentPage;
         private int pageSize;
-        private long totalElements;
-        private int totalPages;
+        private Long totalElements;   // null when the count was skipped
+        private Integer totalPages;   // null when the count was skipped
         private boolean first;
         private boolean last;
+        private String nextCursor;    // keyset cursor for the next page, null on the last page
+
+        /**
+         * Build metadata from an offset page, an uncounted slice, or a keyset slice.
+         */
+        public static PageMetadata from(Slice<?> slice, boolean cursorMode) {
+            PageMetadataBuilder builder = PageMetadata.builder()
+                    .currentPage(slice.getNumber())
+                    .pageSize(slice.getSize())
+                    .first(!cursorMode && slice.isFirst())
+                    .last(slice.isLast())
+                    .nextCursor(PageCursor.next(slice));
+
+            if (slice instanceof Page<?> page) {
+                builder.totalElements(page.getTotalElements())
+                        .totalPages(page.getTotalPages());
+            }
+            return builder.build();
+        }
     }
 
     /**
@@ -0,0 +1,7 @@
+package com.example.ecom_proj.exceptions;
+
+public class BorrowRequestConflictException extends RuntimeException {
+    public BorrowRequestConflictException(Long id, String expectedStatus) {
+        super("Borrow request " + id + " is no longer " + expectedStatus + "; it was processed by another request");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.ecom_proj.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
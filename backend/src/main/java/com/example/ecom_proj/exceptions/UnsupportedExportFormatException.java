@@ -0,0 +1,7 @@
+package com.example.ecom_proj.exceptions;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format: " + format + " (expected csv or ndjson)");
+    }
+}
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -20,7 +21,8 @@ import java.time.LocalDate;
 public class Asset {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asset_seq")
+    @SequenceGenerator(name = "asset_seq", sequenceName = "asset_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Asset name is required")
@@ -52,6 +54,12 @@ public class Asset {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // NOTE: Optimistic lock: concurrent writes to one asset fail with a 409 instead of overwriting each other
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Enum for Asset Status
      * Better than using plain strings - prevents typos and invalid values
@@ -20,7 +20,8 @@ import java.util.List;
 public class AssetCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asset_category_seq")
+    @SequenceGenerator(name = "asset_category_seq", sequenceName = "asset_category_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Category name is required")
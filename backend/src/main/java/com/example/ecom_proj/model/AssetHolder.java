@@ -0,0 +1,40 @@
+package com.example.ecom_proj.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current-holder projection — who holds each asset right now.
+ *
+ * Derived from the AssetTransaction log and kept up to date by every write that logs a
+ * transaction, so reads never have to scan the log. Can be regenerated from the log at
+ * any time via AssetHolderService.rebuild().
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "asset_holder")
+public class AssetHolder {
+
+    // NOTE: One row per asset; the asset id is the key
+    @Id
+    @Column(name = "asset_id")
+    private Long assetId;
+
+    // NOTE: User the asset was last assigned to
+    @Column(name = "holder_id", nullable = false)
+    private Long holderId;
+
+    // NOTE: When the holder got the asset (date of the source transaction)
+    @Column(nullable = false)
+    private LocalDateTime since;
+
+    // NOTE: AssetTransaction this row was derived from
+    @Column(name = "source_transaction_id", nullable = false)
+    private Long sourceTransactionId;
+}
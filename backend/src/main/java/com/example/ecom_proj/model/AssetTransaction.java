@@ -20,15 +20,17 @@ import java.time.LocalDateTime;
 public class AssetTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asset_transaction_seq")
+    @SequenceGenerator(name = "asset_transaction_seq", sequenceName = "asset_transaction_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}) // ADD THIS
+    // NOTE: No cascades: a transaction only points at existing rows, so writes never merge the asset/user graph
+    @ManyToOne
     @NotNull(message = "Asset is required for transaction")
     @JoinColumn(name = "asset_id", nullable = false)
     private Asset asset;
 
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}) // ADD THIS for Users too if needed
+    @ManyToOne
     @NotNull(message = "User is required for transaction")
     @JoinColumn(name = "user_id", nullable = false)
     private Users user;
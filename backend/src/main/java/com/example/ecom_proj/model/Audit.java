@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Audit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_seq")
+    @SequenceGenerator(name = "audit_seq", sequenceName = "audit_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Entity name is required")
@@ -20,7 +20,8 @@ public class BorrowRequest {
 
     // NOTE: Primary key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrow_request_seq")
+    @SequenceGenerator(name = "borrow_request_seq", sequenceName = "borrow_request_seq", allocationSize = 50)
     private Long id;
 
     // NOTE: Asset being requested
@@ -0,0 +1,50 @@
+package com.example.ecom_proj.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A side effect (e.g. a notification) recorded in the same transaction as the change that caused it.
+ *
+ * OutboxDispatcher delivers due rows and deletes them; a failed delivery is retried at availableAt
+ * with backoff. Rows that used up outbox.max-attempts stay in the table for inspection.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_available_at", columnList = "available_at")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    // NOTE: Selects the OutboxHandler that delivers the event
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // NOTE: JSON, read by the handler
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // NOTE: Next delivery attempt; pushed forward while an instance holds the event and after failures
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+}
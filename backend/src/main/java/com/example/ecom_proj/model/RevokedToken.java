@@ -0,0 +1,37 @@
+package com.example.ecom_proj.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A JWT revoked before its expiry (logout), identified by its jti claim.
+ *
+ * The row only matters until the token would have expired anyway; TokenDenylist loads the live
+ * rows at startup, picks up rows written by other instances, and deletes expired ones.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    // NOTE: The token's jti claim
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    // NOTE: The token's exp claim; the row can be dropped after this
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
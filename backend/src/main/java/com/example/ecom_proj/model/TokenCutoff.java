@@ -0,0 +1,35 @@
+package com.example.ecom_proj.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * "Every token issued to this user before revoked_before is void" (role change, delete).
+ *
+ * The row only matters until the newest token it voids would have expired anyway; TokenRevocationService
+ * loads the live rows at startup, picks up rows written by other instances, and deletes expired ones.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "token_cutoff", indexes = {
+        @Index(name = "idx_token_cutoff_revoked_before", columnList = "revoked_before"),
+        @Index(name = "idx_token_cutoff_expires_at", columnList = "expires_at")
+})
+public class TokenCutoff {
+
+    @Id
+    private String username;
+
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    // NOTE: revoked_before + the token lifetime; the row can be dropped after this
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
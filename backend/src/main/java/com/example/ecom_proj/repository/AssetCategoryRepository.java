@@ -1,9 +1,31 @@
 package com.example.ecom_proj.repository;
 
-import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.dto.AssetCategoryDTO;
 import com.example.ecom_proj.model.AssetCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface AssetCategoryRepository extends JpaRepository<AssetCategory, Long> {
     AssetCategory findByName(String name);
+
+    /**
+     * Every category with its asset count, in one LEFT JOIN ... GROUP BY (categories without assets count 0).
+     */
+    @Query("SELECT new com.example.ecom_proj.dto.AssetCategoryDTO(c.id, c.name, c.description, c.iconUrl, COUNT(a)) "
+            + "FROM AssetCategory c LEFT JOIN c.assets a "
+            + "GROUP BY c.id, c.name, c.description, c.iconUrl "
+            + "ORDER BY c.id")
+    List<AssetCategoryDTO> findAllWithAssetCounts();
+
+    /**
+     * Every category with its asset count per status, one row per (category, status):
+     * [id, name, description, iconUrl, status, count]. A category without assets has one row with a null status.
+     */
+    @Query("SELECT c.id, c.name, c.description, c.iconUrl, a.status, COUNT(a) "
+            + "FROM AssetCategory c LEFT JOIN c.assets a "
+            + "GROUP BY c.id, c.name, c.description, c.iconUrl, a.status "
+            + "ORDER BY c.id, a.status")
+    List<Object[]> findAllWithAssetCountsByStatus();
 }
@@ -0,0 +1,80 @@
+package com.example.ecom_proj.repository;
+
+import com.example.ecom_proj.model.AssetHolder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AssetHolderRepository extends JpaRepository<AssetHolder, Long> {
+
+    /**
+     * Holders (with username) for the given assets — a single join, independent of the log size.
+     */
+    @Query("SELECT h.assetId AS assetId, u.id AS userId, u.username AS username " +
+            "FROM AssetHolder h JOIN Users u ON u.id = h.holderId " +
+            "WHERE h.assetId IN :assetIds")
+    List<HolderView> findHoldersByAssetIds(@Param("assetIds") Collection<Long> assetIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO asset_holder (asset_id, holder_id, since, source_transaction_id) " +
+            "VALUES (:assetId, :holderId, :since, :transactionId) " +
+            "ON CONFLICT (asset_id) DO UPDATE SET holder_id = EXCLUDED.holder_id, since = EXCLUDED.since, " +
+            "source_transaction_id = EXCLUDED.source_transaction_id",
+            nativeQuery = true)
+    int upsert(@Param("assetId") Long assetId,
+               @Param("holderId") Long holderId,
+               @Param("since") LocalDateTime since,
+               @Param("transactionId") Long transactionId);
+
+    @Modifying
+    @Query("DELETE FROM AssetHolder h WHERE h.assetId = :assetId")
+    int deleteByAssetId(@Param("assetId") Long assetId);
+
+    @Modifying
+    @Query(value = "DELETE FROM asset_holder", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Regenerate holder rows for every asset from its latest transaction.
+     * Only assignment actions produce a holder. Assets that already have a row (e.g. upserted by a
+     * concurrent {@link #upsert}) keep it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO asset_holder (asset_id, holder_id, since, source_transaction_id) " +
+            "SELECT latest.asset_id, latest.user_id, latest.transaction_date, latest.id FROM (" +
+            "  SELECT DISTINCT ON (t.asset_id) t.asset_id, t.user_id, t.transaction_date, t.id, t.action " +
+            "  FROM asset_transaction t " +
+            "  ORDER BY t.asset_id, t.transaction_date DESC, t.id DESC" +
+            ") latest " +
+            "WHERE latest.action IN (:actions) " +
+            "ON CONFLICT (asset_id) DO NOTHING",
+            nativeQuery = true)
+    int insertFromLatestTransactions(@Param("actions") Collection<String> actions);
+
+    /**
+     * Same as {@link #insertFromLatestTransactions(Collection)}, restricted to one asset.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO asset_holder (asset_id, holder_id, since, source_transaction_id) " +
+            "SELECT t.asset_id, t.user_id, t.transaction_date, t.id " +
+            "FROM (SELECT * FROM asset_transaction WHERE asset_id = :assetId " +
+            "      ORDER BY transaction_date DESC, id DESC LIMIT 1) t " +
+            "WHERE t.action IN (:actions) " +
+            "ON CONFLICT (asset_id) DO NOTHING",
+            nativeQuery = true)
+    int insertFromLatestTransaction(@Param("assetId") Long assetId, @Param("actions") Collection<String> actions);
+
+    /**
+     * Projection for {@link #findHoldersByAssetIds(Collection)}.
+     */
+    interface HolderView {
+        Long getAssetId();
+        Long getUserId();
+        String getUsername();
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.ecom_proj.repository;
 
+import com.example.ecom_proj.dto.CategoryStatusSummary;
 import com.example.ecom_proj.model.Asset;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AssetRepository extends JpaRepository<Asset, Long>, JpaSpecificationExecutor<Asset> {
@@ -42,4 +48,31 @@ public interface AssetRepository extends JpaRepository<Asset, Long>, JpaSpecific
     // Optional: fetch all assets by category
     List<Asset> findByCategoryId(Long categoryId);
 
-}
\ No newline at end of file
+    /**
+     * Asset count per category name, computed in the database ([categoryName, count] rows).
+     */
+    @Query("SELECT c.name, COUNT(a) FROM Asset a JOIN a.category c GROUP BY c.name")
+    List<Object[]> countByCategoryName();
+
+    @Query("SELECT new com.example.ecom_proj.dto.CategoryStatusSummary(c.id, c.name, a.status, COUNT(a), SUM(a.cost)) "
+            + "FROM Asset a JOIN a.category c "
+            + "GROUP BY c.id, c.name, a.status "
+            + "ORDER BY c.name, a.status")
+    List<CategoryStatusSummary> summarizeByCategoryAndStatus();
+
+    /**
+     * Set one asset's status with a single UPDATE, without loading or merging the entity.
+     * Compare-and-set on the version (which it increments): 0 rows means the asset changed since it was read.
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED Asset a SET a.status = :status WHERE a.id = :id AND a.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version, @Param("status") Asset.AssetStatus status);
+
+    /**
+     * Whole table as a cursor-backed stream for exports; must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Asset a LEFT JOIN FETCH a.category ORDER BY a.id")
+    Stream<Asset> streamAll();
+}
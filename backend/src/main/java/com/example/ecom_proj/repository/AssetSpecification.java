@@ -3,8 +3,11 @@ package com.example.ecom_proj.repository;
 import com.example.ecom_proj.dto.AssetSearchCriteria;
 import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.AssetCategory;
-import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
@@ -13,6 +16,11 @@ import java.util.List;
 /**
  * JPA Specification for dynamic Asset queries
  * Allows building complex WHERE clauses programmatically
+ *
+ * Substring filters are LOWER(col) LIKE '%term%'; schema.sql backs each of them with a
+ * pg_trgm GIN index on the same LOWER(col) expression. Category name matches are expressed
+ * as "category_id IN (matching categories)" so every branch is an indexable predicate on
+ * the asset table and the planner can combine them with a bitmap OR.
  */
 public class AssetSpecification {
 
@@ -37,13 +45,12 @@ public class AssetSpecification {
                 );
 
                 // Search in category name too
-                Join<Asset, AssetCategory> categoryJoin = root.join("category");
-                Predicate categoryPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(categoryJoin.get("name")),
-                        searchPattern
-                );
+                Predicate categoryPredicate = root.get("category").get("id")
+                        .in(categoryIdsMatching(query, criteriaBuilder, searchPattern));
 
                 predicates.add(criteriaBuilder.or(namePredicate, serialPredicate, categoryPredicate));
+                // Same result set as the former inner join on category: uncategorised assets never match
+                predicates.add(criteriaBuilder.isNotNull(root.get("category")));
             }
 
             // Specific field filters
@@ -70,11 +77,11 @@ public class AssetSpecification {
             }
 
             if (criteria.getCategoryName() != null && !criteria.getCategoryName().isBlank()) {
-                Join<Asset, AssetCategory> categoryJoin = root.join("category");
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(categoryJoin.get("name")),
+                predicates.add(root.get("category").get("id").in(categoryIdsMatching(
+                        query,
+                        criteriaBuilder,
                         "%" + criteria.getCategoryName().toLowerCase() + "%"
-                ));
+                )));
             }
 
             // Date range filters
@@ -110,4 +117,14 @@ public class AssetSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Subquery: ids of categories whose lower-cased name matches the pattern
+     */
+    private static Subquery<Long> categoryIdsMatching(CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, String pattern) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<AssetCategory> category = subquery.from(AssetCategory.class);
+        return subquery.select(category.get("id"))
+                .where(criteriaBuilder.like(criteriaBuilder.lower(category.get("name")), pattern));
+    }
 }
\ No newline at end of file
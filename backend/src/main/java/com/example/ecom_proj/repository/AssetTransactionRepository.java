@@ -2,14 +2,27 @@ package com.example.ecom_proj.repository;
 
 
 import com.example.ecom_proj.model.AssetTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AssetTransactionRepository extends JpaRepository<AssetTransaction, Long>, JpaSpecificationExecutor<AssetTransaction> {
     List<AssetTransaction> findByAssetId(Long assetId);
     List<AssetTransaction> findByUserId(Long userId);
     Optional<AssetTransaction> findTopByAssetIdOrderByTransactionDateDesc(Long assetId);
+
+    /**
+     * Whole table as a cursor-backed stream for exports; must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM AssetTransaction t JOIN FETCH t.asset a LEFT JOIN FETCH a.category JOIN FETCH t.user ORDER BY t.id")
+    Stream<AssetTransaction> streamAll();
 }
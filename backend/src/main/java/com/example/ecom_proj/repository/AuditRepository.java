@@ -1,10 +1,15 @@
 package com.example.ecom_proj.repository;
 
 import com.example.ecom_proj.model.Audit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AuditRepository extends JpaRepository<Audit, Long>, JpaSpecificationExecutor<Audit> {
     // find all audits by actor (username, id, etc.)
@@ -12,4 +17,12 @@ public interface AuditRepository extends JpaRepository<Audit, Long>, JpaSpecific
     List<Audit> findByActionType(String action);
 
     List<Audit> findTop5ByOrderByPerformedAtDesc();
+
+    /**
+     * Whole table as a cursor-backed stream for exports; must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Audit a ORDER BY a.id")
+    Stream<Audit> streamAll();
 }
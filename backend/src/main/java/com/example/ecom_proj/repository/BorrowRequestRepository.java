@@ -3,10 +3,13 @@ package com.example.ecom_proj.repository;
 import com.example.ecom_proj.model.BorrowRequest;
 import com.example.ecom_proj.model.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, Long> {
 
@@ -26,6 +29,44 @@ public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, Lo
 
 
 
+    /**
+     * One request with its asset (and the asset's eager category) and requester in a single SELECT
+     * (approval / return paths).
+     */
+    @Query("SELECT br FROM BorrowRequest br " +
+            "JOIN FETCH br.asset a " +
+            "JOIN FETCH a.category " +
+            "JOIN FETCH br.requester " +
+            "WHERE br.id = :id")
+    Optional<BorrowRequest> findByIdWithAssetAndRequester(@Param("id") Long id);
+
+    /**
+     * Admin decision as a compare-and-set: only applies while the request is still in {@code from}.
+     *
+     * @return 1 if this call made the transition, 0 if another one got there first
+     */
+    @Modifying
+    @Query("UPDATE BorrowRequest br SET br.status = :to, br.processedBy = :processedBy, " +
+            "br.processedAt = :processedAt, br.declineReason = :reason " +
+            "WHERE br.id = :id AND br.status = :from")
+    int transitionProcessed(@Param("id") Long id,
+                            @Param("from") BorrowRequest.Status from,
+                            @Param("to") BorrowRequest.Status to,
+                            @Param("processedBy") Users processedBy,
+                            @Param("processedAt") LocalDateTime processedAt,
+                            @Param("reason") String reason);
+
+    /**
+     * Requester-side transition (cancel, return), same compare-and-set semantics.
+     */
+    @Modifying
+    @Query("UPDATE BorrowRequest br SET br.status = :to, br.declineReason = :reason " +
+            "WHERE br.id = :id AND br.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") BorrowRequest.Status from,
+                   @Param("to") BorrowRequest.Status to,
+                   @Param("reason") String reason);
+
     // NOTE: Find requests by requester
     List<BorrowRequest> findByRequester(Users requester);
 }
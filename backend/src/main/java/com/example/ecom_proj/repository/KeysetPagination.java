@@ -0,0 +1,134 @@
+package com.example.ecom_proj.repository;
+
+import com.example.ecom_proj.dto.PageCursor;
+import com.example.ecom_proj.exceptions.InvalidCursorException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Offset and keyset (cursor) pagination on top of a Specification.
+ *
+ * - Offset mode (no cursor) keeps the classic PageRequest behaviour; the COUNT(*) query can be
+ *   skipped, in which case a Slice is returned.
+ * - Keyset mode seeks on (sort key, id) from the cursor, so page N costs the same as page 1,
+ *   and never runs a count query.
+ *
+ * The id is always appended as a tie-breaker so the order is total and cursors are stable.
+ * Null sort values follow PostgreSQL's default ordering (NULLS LAST for ASC, NULLS FIRST for DESC).
+ */
+public class KeysetPagination {
+
+    public static <T> Slice<T> fetch(JpaSpecificationExecutor<T> repository,
+                                     Specification<T> spec,
+                                     Pageable pageable,
+                                     String cursor,
+                                     boolean includeTotal) {
+        Sort sort = withIdTieBreaker(pageable.getSort());
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+
+        if (cursor == null || cursor.isBlank()) {
+            if (includeTotal) {
+                return repository.findAll(spec, sorted);
+            }
+            return repository.findBy(spec, q -> q.sortBy(sort).slice(sorted));
+        }
+
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        Sort.Order primary = sort.iterator().next();
+        if (!primary.getProperty().equals(pageCursor.getSortKey()) || primary.getDirection() != pageCursor.getDirection()) {
+            throw new InvalidCursorException("Cursor does not match the requested sort order");
+        }
+
+        int size = pageable.getPageSize();
+        List<T> rows = repository.findBy(spec.and(after(pageCursor)), q -> q.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    /**
+     * Rows strictly after the cursor position in (sort key, id) order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(PageCursor cursor) {
+        return (root, query, cb) -> {
+            boolean asc = cursor.getDirection().isAscending();
+            Path<Long> idPath = root.get("id");
+            Predicate afterId = asc ? cb.greaterThan(idPath, cursor.getId()) : cb.lessThan(idPath, cursor.getId());
+
+            if ("id".equals(cursor.getSortKey())) {
+                return afterId;
+            }
+
+            Path<?> keyPath = path(root, cursor.getSortKey());
+
+            if (cursor.getValue() == null) {
+                // last row was in the NULL group
+                Predicate sameGroup = cb.and(cb.isNull(keyPath), afterId);
+                return asc ? sameGroup : cb.or(sameGroup, cb.isNotNull(keyPath));
+            }
+
+            Comparable value = convert(cursor.getValue(), keyPath.getJavaType());
+            Expression<Comparable> key = (Expression<Comparable>) keyPath;
+            Predicate beyond = asc ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate tie = cb.and(cb.equal(keyPath, value), afterId);
+            Predicate seek = cb.or(beyond, tie);
+
+            // ASC puts NULLs after every value
+            return asc ? cb.or(seek, cb.isNull(keyPath)) : seek;
+        };
+    }
+
+    private static Sort withIdTieBreaker(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.by(Sort.Direction.DESC, "id");
+        }
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.iterator().next().getDirection();
+        return sort.and(Sort.by(direction, "id"));
+    }
+
+    private static Path<?> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) return value;
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == Double.class || type == double.class) return Double.valueOf(value);
+            if (type == BigDecimal.class) return new BigDecimal(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        throw new InvalidCursorException("Cursor pagination is not supported for this sort field");
+    }
+}
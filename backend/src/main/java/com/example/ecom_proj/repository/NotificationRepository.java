@@ -1,11 +1,64 @@
 package com.example.ecom_proj.repository;
 
 import com.example.ecom_proj.model.Notification;
-import com.example.ecom_proj.model.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByRecipientOrderByCreatedAtDesc(Users recipient);
+public interface NotificationRepository extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification> {
+
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    /**
+     * Marks the recipient's own unread rows among ids read. Returns how many were unread, i.e. the
+     * exact change to their unread count.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true " +
+            "WHERE n.recipient.id = :recipientId AND n.id IN :ids AND n.read = false")
+    int markReadByIds(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks read the recipient's unread rows at or after (createdAt, id) in inbox order (newest first),
+     * i.e. that row and everything older.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true " +
+            "WHERE n.recipient.id = :recipientId AND n.read = false " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    int markReadUpTo(@Param("recipientId") Long recipientId,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false")
+    int markAllRead(@Param("recipientId") Long recipientId);
+
+    /**
+     * Deletes up to limit read rows created before cutoff. Rows locked by another instance's run are
+     * skipped, so concurrent runs never wait on each other.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+            "SELECT id FROM notifications WHERE is_read AND created_at < :cutoff " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Moves up to limit read rows created before cutoff into notifications_archive, as one statement.
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+            "DELETE FROM notifications WHERE id IN (" +
+            "SELECT id FROM notifications WHERE is_read AND created_at < :cutoff " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient_id, message, created_at) " +
+            "INSERT INTO notifications_archive (id, recipient_id, message, created_at, archived_at) " +
+            "SELECT id, recipient_id, message, created_at, now() FROM moved", nativeQuery = true)
+    int archiveReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,30 @@
+package com.example.ecom_proj.repository;
+
+import com.example.ecom_proj.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Due events in insertion order, row-locked for the current transaction. Rows another instance has
+     * locked are skipped rather than waited for.
+     */
+    @Query(value = "SELECT * FROM outbox_event " +
+            "WHERE available_at <= :now AND attempts < :maxAttempts " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDue(@Param("now") Instant now,
+                              @Param("maxAttempts") int maxAttempts,
+                              @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :availableAt, e.lastError = :error WHERE e.id = :id")
+    int reschedule(@Param("id") Long id, @Param("availableAt") Instant availableAt, @Param("error") String error);
+
+    long countByAttemptsGreaterThanEqual(int attempts);
+}
@@ -0,0 +1,49 @@
+package com.example.ecom_proj.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reserves ids for rows written with plain JDBC (e.g. the bulk asset import), compatible with the
+ * pooled optimizer Hibernate uses for the entity sequences.
+ *
+ * NOTE: With INCREMENT BY 50, each nextval() value v owns the block (v - 49 .. v), the same block
+ * Hibernate would use for it, so JDBC writers and Hibernate never hand out the same id.
+ * Unused ids at the end of the last block are skipped (sequence gaps are harmless).
+ */
+@Component
+public class PooledIdAllocator {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PooledIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@code count} fresh ids from the given sequence, in ascending order, in one round trip.
+     */
+    public List<Long> allocate(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        if (count <= 0) return ids;
+
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        for (Long high : highs) {
+            for (long id = Math.max(1, high - ALLOCATION_SIZE + 1); id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        // a fresh sequence's first value (1) yields a one-id block; top up if that left us short
+        if (ids.size() < count) {
+            ids.addAll(allocate(sequence, count - ids.size()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ecom_proj.repository;
+
+import com.example.ecom_proj.model.TokenCutoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenCutoffRepository extends JpaRepository<TokenCutoff, String> {
+
+    List<TokenCutoff> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Cutoffs recorded since the given instant (by any instance) that are still live.
+     */
+    List<TokenCutoff> findByRevokedBeforeGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenCutoff c WHERE c.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,13 +1,19 @@
 package com.example.ecom_proj.repository;
 
 import com.example.ecom_proj.model.Users;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<Users, Long>, JpaSpecificationExecutor<Users> {
@@ -18,5 +24,16 @@ public interface UserRepository extends JpaRepository<Users, Long>, JpaSpecifica
 
 
     Page<Users> findByRole(Users.Role role, Pageable pageable);
+
+    @Query("SELECT u.id FROM Users u WHERE u.role = :role")
+    List<Long> findIdsByRole(@Param("role") Users.Role role);
     Page<Users> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Whole table as a cursor-backed stream for exports; must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u FROM Users u ORDER BY u.id")
+    Stream<Users> streamAll();
+}
@@ -0,0 +1,74 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.service.UserCache;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The user the current request acts as, for transaction and audit logging.
+ *
+ * NOTE: JwtAuthenticationFilter resolves the user once per request and stores a {@link JwtPrincipal}
+ * (id, username, role) in the SecurityContext. Reading it here costs no query. Other authentications
+ * (tests, internal callers) fall back to the shared UserCache.
+ */
+@Component
+public class ActingUser {
+
+    private final UserCache userCache;
+
+    public ActingUser(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    /**
+     * The acting user, or null when the request is not authenticated (or the user no longer exists).
+     */
+    public JwtPrincipal get() {
+        Authentication auth = authentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (auth.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        UserCache.Snapshot user = userCache.get(auth.getName());
+        return user == null ? null : new JwtPrincipal(user.id(), user.username(), user.role());
+    }
+
+    /**
+     * The acting user, or an IllegalStateException.
+     */
+    public JwtPrincipal require() {
+        JwtPrincipal principal = get();
+        if (principal == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+        return principal;
+    }
+
+    /**
+     * The JWT the current request was authenticated with, or null for other authentications.
+     */
+    public JwtTokenDetails token() {
+        Authentication auth = authentication();
+        return auth != null && auth.getDetails() instanceof JwtTokenDetails token ? token : null;
+    }
+
+    /**
+     * Name of the authenticated caller (anonymousUser on public endpoints), or null; never touches the database.
+     */
+    public static String username() {
+        Authentication auth = authentication();
+        return auth == null ? null : auth.getName();
+    }
+
+    private static Authentication authentication() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return null;
+        }
+        return auth;
+    }
+}
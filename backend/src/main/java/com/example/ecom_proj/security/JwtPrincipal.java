@@ -0,0 +1,29 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.Users;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The authenticated user as carried by a verified JWT: id, username and role.
+ *
+ * NOTE: Built from token claims only, so it is set as the Authentication principal without loading
+ * the user row. {@link #getName()} is the username, so Authentication.getName() is unchanged.
+ */
+public record JwtPrincipal(Long id, String username, Users.Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /**
+     * ROLE_ADMIN / ROLE_STAFF / ROLE_VIEWER, as CustomUserDetailsService grants.
+     */
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.ecom_proj.security;
+
+import java.time.Instant;
+
+/**
+ * Authentication details for a JWT-authenticated request: the token's jti, issue time and exp, so the
+ * token itself can be revoked on logout, and long-lived uses (event streams) can re-check it.
+ */
+public record JwtTokenDetails(String jti, Instant issuedAt, Instant expiresAt) {
+}
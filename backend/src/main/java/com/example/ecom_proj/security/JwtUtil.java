@@ -1,15 +1,25 @@
 package com.example.ecom_proj.security;
 
+import com.example.ecom_proj.model.Users;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -18,15 +28,51 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:MySecretKeyForJWTTokenGenerationAndValidation123456789}")
-    private String SECRET_KEY;
-
-    @Value("${jwt.expiration:36000000}") // 10 hours default
-    private long JWT_TOKEN_VALIDITY;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    /** User id claim (number) */
+    public static final String CLAIM_USER_ID = "uid";
+    /** Role claim: ADMIN / STAFF / VIEWER */
+    public static final String CLAIM_ROLE = "role";
+    /** Issue time in milliseconds; iat only has whole seconds, too coarse for TokenRevocationService */
+    public static final String CLAIM_ISSUED_AT_MS = "iat_ms";
+
+    private final long JWT_TOKEN_VALIDITY;
+
+    // Built once: both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // SHA-256(token) → verified claims, each entry kept until the token's exp
+    private final Cache<String, Claims> verified;
+
+    public JwtUtil(@Value("${jwt.secret:MySecretKeyForJWTTokenGenerationAndValidation123456789}") String secretKey,
+                   @Value("${jwt.expiration:36000000}") long tokenValidity, // 10 hours default
+                   @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.JWT_TOKEN_VALIDITY = tokenValidity;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMs = claims.getExpiration() == null
+                                ? 0 : claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     // =====================
@@ -39,6 +85,16 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Token carrying the user's id and role, so requests authenticate from the token alone.
+     */
+    public String generateToken(Users user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        return createToken(claims, user.getUsername());
+    }
+
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return createToken(extraClaims, username);
     }
@@ -49,10 +105,12 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .claims(claims)
+                .claim(CLAIM_ISSUED_AT_MS, now.getTime())
+                .id(UUID.randomUUID().toString())   // jti, so a single token can be revoked
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())   // automatically picks HS256 for HMAC keys
+                .signWith(signingKey)   // automatically picks HS256 for HMAC keys
                 .compact();
     }
 
@@ -69,43 +127,92 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return resolver.apply(claims);
     }
 
+    /**
+     * Verify the signature and expiry and return the claims.
+     *
+     * NOTE: A token verified earlier is answered from a bounded cache keyed by its SHA-256 until it
+     * expires, so repeat requests with the same token skip the HMAC check and JSON parse.
+     * Only tokens that verified go in, so the cache cannot hold a forged token.
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        String key = sha256(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+        claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            verified.put(key, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * The principal carried by the uid/role claims, or null for tokens issued without them.
+     */
+    public static JwtPrincipal principalOf(Claims claims) {
+        Object id = claims.get(CLAIM_USER_ID);
+        Object role = claims.get(CLAIM_ROLE);
+        if (!(id instanceof Number) || !(role instanceof String)) {
+            return null;
+        }
+        try {
+            return new JwtPrincipal(((Number) id).longValue(), claims.getSubject(), Users.Role.valueOf((String) role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * When the token was issued: the millisecond claim, else iat (start of its second), else null.
+     */
+    public static Instant issuedAt(Claims claims) {
+        Object millis = claims.get(CLAIM_ISSUED_AT_MS);
+        if (millis instanceof Number n) {
+            return Instant.ofEpochMilli(n.longValue());
+        }
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()                       // ✅ new parser factory in 0.12.x
-                .verifyWith(getSigningKey())       // verify signature using our key
-                .build()
+        return parser
                 .parseSignedClaims(token)          // new method name in 0.12.x
                 .getPayload();                     // payload = Claims
     }
 
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     // =====================
     // ===== VALIDATION ====
     // =====================
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        final Claims claims = parseClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (ExpiredJwtException e) {
-            System.out.println("Token expired");
+            log.debug("Token expired");
             return false;
         } catch (JwtException e) {
-            System.out.println("Invalid token");
+            log.debug("Invalid token: {}", e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,129 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limits on POST /auth/login, per username and per client IP.
+ *
+ * NOTE: Checked before any password hashing, so a flood against one account or from one address is
+ * refused cheaply with a 429. Idle buckets are dropped after an hour and the number tracked is bounded.
+ * The IP is the connection's remote address; behind a proxy, set server.forward-headers-strategy
+ * so it is the client's.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .maximumSize(100_000)
+            .build();
+
+    private final int usernameCapacity;
+    private final double usernameRefillPerMinute;
+    private final int ipCapacity;
+    private final double ipRefillPerMinute;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder usernameRejections = new LongAdder();
+    private final LongAdder ipRejections = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.login.throttle.username.capacity:5}") int usernameCapacity,
+                         @Value("${auth.login.throttle.username.refill-per-minute:5}") double usernameRefillPerMinute,
+                         @Value("${auth.login.throttle.ip.capacity:50}") int ipCapacity,
+                         @Value("${auth.login.throttle.ip.refill-per-minute:50}") double ipRefillPerMinute) {
+        this(usernameCapacity, usernameRefillPerMinute, ipCapacity, ipRefillPerMinute, System::nanoTime);
+    }
+
+    LoginThrottle(int usernameCapacity, double usernameRefillPerMinute, int ipCapacity, double ipRefillPerMinute,
+                  LongSupplier nanoClock) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerMinute = usernameRefillPerMinute;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Take one token from the IP's bucket and one from the username's.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void check(String username, String clientIp) {
+        long now = nanoClock.getAsLong();
+        if (clientIp != null) {
+            long waitNanos = buckets.get("ip:" + clientIp, k -> new TokenBucket(ipCapacity, ipRefillPerMinute, now))
+                    .tryConsume(now);
+            if (waitNanos > 0) {
+                ipRejections.increment();
+                throw new TooManyRequestsException("Too many login attempts from this address, please retry later",
+                        retryAfterSeconds(waitNanos));
+            }
+        }
+        if (username != null) {
+            String key = "user:" + username.toLowerCase(Locale.ROOT);
+            long waitNanos = buckets.get(key, k -> new TokenBucket(usernameCapacity, usernameRefillPerMinute, now))
+                    .tryConsume(now);
+            if (waitNanos > 0) {
+                usernameRejections.increment();
+                throw new TooManyRequestsException("Too many login attempts for this account, please retry later",
+                        retryAfterSeconds(waitNanos));
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedBuckets", buckets.estimatedSize());
+        stats.put("usernameRejections", usernameRejections.sum());
+        stats.put("ipRejections", ipRejections.sum());
+        return stats;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one is available
+         */
+        synchronized long tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano <= 0 ? TimeUnit.HOURS.toNanos(1) : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.RevokedToken;
+import com.example.ecom_proj.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Revoked token ids (jti), checked by the JWT filter on every request.
+ *
+ * NOTE: A Bloom filter sits in front of the map, so the usual "not revoked" answer costs a few hashes
+ * and no lookup. Entries are also queued by expiry and dropped once the token would have expired anyway.
+ * Revocations are written to the revoked_token table. They are loaded at startup, and rows written by
+ * other instances are picked up every jwt.denylist.sync-interval, which bounds how long another node
+ * can keep honouring a logged-out token.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+    // Overlap between sync windows, for clock skew between instances
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private record Entry(String jti, Instant expiresAt) {}
+
+    private final RevokedTokenRepository repository;
+    private final int expectedSize;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Entry> byExpiry =
+            new PriorityBlockingQueue<>(64, Comparator.comparing(Entry::expiresAt));
+
+    // Bloom filters can't delete: the filter is rebuilt from the map once enough entries have expired
+    private final Object bloomLock = new Object();
+    private volatile BloomFilter bloom;
+    private volatile int bloomCapacity;
+    private final AtomicInteger bloomInserts = new AtomicInteger();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenDenylist(RevokedTokenRepository repository,
+                         @Value("${jwt.denylist.expected-size:100000}") int expectedSize) {
+        this.repository = repository;
+        this.expectedSize = expectedSize;
+        this.bloom = new BloomFilter(expectedSize);
+        this.bloomCapacity = expectedSize;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloom.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * Revoke a token until its expiry, here and (through the table) on every other instance.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        repository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        remember(jti, expiresAt);
+    }
+
+    /**
+     * Load every live revocation. Runs at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        try {
+            repository.findByExpiresAtAfter(now).forEach(r -> remember(r.getJti(), r.getExpiresAt()));
+            lastSync = now;
+            log.info("Loaded {} revoked tokens", revoked.size());
+        } catch (Exception e) {
+            log.error("Failed to load revoked tokens", e);
+        }
+    }
+
+    /**
+     * Pick up revocations made by other instances, then drop expired entries here and in the table.
+     */
+    @Scheduled(initialDelayString = "${jwt.denylist.sync-interval:PT30S}",
+            fixedDelayString = "${jwt.denylist.sync-interval:PT30S}")
+    public void sync() {
+        Instant now = Instant.now();
+        try {
+            repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now)
+                    .forEach(r -> remember(r.getJti(), r.getExpiresAt()));
+            lastSync = now;
+            repository.deleteExpired(now);
+        } catch (Exception e) {
+            log.error("Failed to sync revoked tokens", e);
+        }
+        purge(now);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revoked", revoked.size());
+        stats.put("bloomInserts", bloomInserts.get());
+        stats.put("lastSync", lastSync);
+        return stats;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void remember(String jti, Instant expiresAt) {
+        if (revoked.putIfAbsent(jti, expiresAt) != null) {
+            return;
+        }
+        byExpiry.add(new Entry(jti, expiresAt));
+        synchronized (bloomLock) {
+            bloom.put(jti);
+            bloomInserts.incrementAndGet();
+        }
+    }
+
+    void purge(Instant now) {
+        Entry head;
+        while ((head = byExpiry.peek()) != null && !head.expiresAt().isAfter(now)) {
+            byExpiry.poll();
+            revoked.remove(head.jti(), head.expiresAt());
+        }
+        // Rebuild once the filter carries many dead keys or more than it was sized for
+        if (bloomInserts.get() - revoked.size() > bloomCapacity / 2 || bloomInserts.get() > bloomCapacity) {
+            synchronized (bloomLock) {
+                int capacity = Math.max(expectedSize, revoked.size() * 2);
+                BloomFilter rebuilt = new BloomFilter(capacity);
+                revoked.keySet().forEach(rebuilt::put);
+                bloom = rebuilt;
+                bloomCapacity = capacity;
+                bloomInserts.set(revoked.size());
+            }
+        }
+    }
+}
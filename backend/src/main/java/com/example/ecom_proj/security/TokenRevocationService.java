@@ -0,0 +1,137 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.TokenCutoff;
+import com.example.ecom_proj.repository.TokenCutoffRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-user "tokens issued before this instant are void" cutoffs.
+ *
+ * NOTE: Tokens carry the role, so a role change or delete would otherwise stay invisible until the
+ * token expires. UserService records a cutoff here instead, and the JWT filter checks it in memory.
+ * Cutoffs are taken once the change has committed (a rolled-back change logs nobody out) and compared
+ * strictly against the token's millisecond issue time, so a login right after the change is unaffected.
+ * Like TokenDenylist, cutoffs are written to the token_cutoff table, loaded at startup, and picked up from
+ * other instances every jwt.revocation.sync-interval. An entry only has to outlive the tokens it voids,
+ * so it expires after jwt.expiration.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Overlap between sync windows, for clock skew between instances
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenCutoffRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tokenValidity;
+    private final Cache<String, Instant> cutoffs;
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(TokenCutoffRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${jwt.expiration:36000000}") long tokenValidityMs) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tokenValidity = Duration.ofMillis(tokenValidityMs);
+        this.cutoffs = Caffeine.newBuilder()
+                .expireAfterWrite(tokenValidity)
+                .build();
+    }
+
+    /**
+     * Void every token issued to this user before the given instant, here and (through the table) on
+     * every other instance.
+     */
+    public void revokeIssuedBefore(String username, Instant cutoff) {
+        remember(username, cutoff);
+        try {
+            // REQUIRES_NEW: this may run in afterCommit, where the caller's transaction is already done
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.save(new TokenCutoff(username, cutoff, cutoff.plus(tokenValidity))));
+        } catch (Exception e) {
+            log.error("Failed to persist token cutoff for {}; other instances will not see it", username, e);
+        }
+    }
+
+    /**
+     * Void every token already issued to this user, once the current transaction commits (immediately
+     * without one).
+     */
+    public void revokeAll(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeIssuedBefore(username, Instant.now());
+                }
+            });
+        } else {
+            revokeIssuedBefore(username, Instant.now());
+        }
+    }
+
+    public boolean isRevoked(String username, Instant issuedAt) {
+        Instant cutoff = cutoffs.getIfPresent(username);
+        if (cutoff == null) return false;
+        return issuedAt == null || issuedAt.isBefore(cutoff);
+    }
+
+    /**
+     * Load every live cutoff. Runs at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        try {
+            repository.findByExpiresAtAfter(now).forEach(c -> remember(c.getUsername(), c.getRevokedBefore()));
+            lastSync = now;
+        } catch (Exception e) {
+            log.error("Failed to load token cutoffs", e);
+        }
+    }
+
+    /**
+     * Pick up cutoffs recorded by other instances, then drop expired rows.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.sync-interval:PT30S}",
+            fixedDelayString = "${jwt.revocation.sync-interval:PT30S}")
+    public void sync() {
+        Instant now = Instant.now();
+        try {
+            repository.findByRevokedBeforeGreaterThanEqualAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now)
+                    .forEach(c -> remember(c.getUsername(), c.getRevokedBefore()));
+            lastSync = now;
+            repository.deleteExpired(now);
+        } catch (Exception e) {
+            log.error("Failed to sync token cutoffs", e);
+        }
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void remember(String username, Instant cutoff) {
+        // never move a cutoff backwards (an older row synced after a newer local revocation)
+        cutoffs.asMap().merge(username, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+}
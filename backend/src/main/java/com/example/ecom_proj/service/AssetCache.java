@@ -0,0 +1,84 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Asset;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of fully resolved assets (including borrowedBy), keyed by asset id.
+ *
+ * NOTE: Writers call {@link #evict(Long)} / {@link #evictAll()}. Entries are dropped immediately and
+ * again when the surrounding transaction completes, so a reader that loaded the row while the
+ * write was still uncommitted cannot leave a stale entry behind.
+ * NOTE: Evictions only reach this instance; writes on other instances show up once the entry expires
+ * after asset.cache.ttl.
+ */
+@Component
+public class AssetCache {
+
+    private final Cache<Long, Asset> cache;
+
+    public AssetCache(@Value("${asset.cache.max-size:10000}") long maxSize,
+                      @Value("${asset.cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached asset, or the loader's result (which is cached). Exceptions from the loader are not cached.
+     */
+    public Asset get(Long id, Function<Long, Asset> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void evict(Long id) {
+        if (id == null) return;
+        cache.invalidate(id);
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+    }
+
+    /**
+     * Hit/miss/eviction counters since startup.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        return result;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
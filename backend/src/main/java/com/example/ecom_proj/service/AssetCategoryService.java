@@ -3,14 +3,18 @@ package com.example.ecom_proj.service;
 import com.example.ecom_proj.dto.AssetCategoryDTO;
 import com.example.ecom_proj.exceptions.AssetCategoryAlreadyExistsException;
 import com.example.ecom_proj.exceptions.AssetCategoryNotFoundException;
+import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.AssetCategory;
 import com.example.ecom_proj.repository.AssetCategoryRepository;
 import com.example.ecom_proj.repository.AssetRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class AssetCategoryService {
@@ -18,21 +22,29 @@ public class AssetCategoryService {
     private final AssetCategoryRepository repository;
     private final AuditService auditService;
     private final AssetRepository assetRepository;
+    private final AssetCache assetCache;
+    private final CategoryCountCache countCache;
 
-    public AssetCategoryService(AssetCategoryRepository repository, AuditService auditService, AssetRepository assetRepository) {
+    public AssetCategoryService(AssetCategoryRepository repository, AuditService auditService, AssetRepository assetRepository, AssetCache assetCache, CategoryCountCache countCache) {
         this.repository = repository;
         this.auditService = auditService;
         this.assetRepository = assetRepository;
+        this.assetCache = assetCache;
+        this.countCache = countCache;
     }
 
     public List<AssetCategoryDTO> getAllAssetCategories() {
-        return repository.findAll().stream()
-                .map(cat -> {
-                    long count = assetRepository.countByCategoryId(cat.getId()); // <-- returns actual count
-                    return new AssetCategoryDTO(cat, (int) count); // cast to int if you want
+        return getAllAssetCategories(false);
+    }
 
-                })
-                .collect(Collectors.toList());
+    /**
+     * Every category with its asset count (and, with byStatus, the count per asset status), from one
+     * grouped query. The result is cached until assets or categories change (see CategoryCountCache).
+     */
+    public List<AssetCategoryDTO> getAllAssetCategories(boolean byStatus) {
+        return countCache.get(byStatus, () -> byStatus
+                ? withStatusCounts(repository.findAllWithAssetCountsByStatus())
+                : repository.findAllWithAssetCounts());
     }
 
 
@@ -44,6 +56,7 @@ public class AssetCategoryService {
             throw new AssetCategoryAlreadyExistsException(category.getName());
         }
         AssetCategory saved = repository.save(category);
+        countCache.evict();
 
         auditService.log("CREATE",
                 saved.getName(),
@@ -82,6 +95,8 @@ public class AssetCategoryService {
         }
 
         AssetCategory saved = repository.save(existing);
+        assetCache.evictAll(); // cached assets embed their category
+        countCache.evict();
 
         auditService.log("UPDATE",
                 saved.getName(),
@@ -102,15 +117,17 @@ public class AssetCategoryService {
         AssetCategory existing = repository.findById(id)
                 .orElseThrow(() -> new AssetCategoryNotFoundException(id));
 
-        // Prevent deletion if category has assets
-        if (existing.getAssets() != null && !existing.getAssets().isEmpty()) {
+        // Prevent deletion if category has assets (counted, not loaded)
+        long assetCount = assetRepository.countByCategoryId(id);
+        if (assetCount > 0) {
             throw new IllegalStateException(
                     "Cannot delete category with existing assets. " +
-                            "Please reassign or delete " + existing.getAssets().size() + " asset(s) first."
+                            "Please reassign or delete " + assetCount + " asset(s) first."
             );
         }
 
         repository.deleteById(id);
+        countCache.evict();
 
 
         auditService.log("DELETE",
@@ -123,5 +140,26 @@ public class AssetCategoryService {
 
     }
 
-
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    /**
+     * Folds the (category, status, count) rows of findAllWithAssetCountsByStatus into one DTO per category.
+     */
+    static List<AssetCategoryDTO> withStatusCounts(List<Object[]> rows) {
+        Map<Long, AssetCategoryDTO> byId = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            AssetCategoryDTO dto = byId.computeIfAbsent((Long) row[0], id -> {
+                AssetCategoryDTO d = new AssetCategoryDTO(id, (String) row[1], (String) row[2], (String) row[3], 0L);
+                d.setStatusCounts(new EnumMap<>(Asset.AssetStatus.class));
+                return d;
+            });
+            if (row[4] != null) {
+                long count = (Long) row[5];
+                dto.getStatusCounts().put((Asset.AssetStatus) row[4], count);
+                dto.setAssetCount(dto.getAssetCount() + (int) count);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
 }
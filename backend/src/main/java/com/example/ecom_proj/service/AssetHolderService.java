@@ -0,0 +1,137 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.configuration.SchemaMigrations;
+import com.example.ecom_proj.dto.BorrowedBy;
+import com.example.ecom_proj.model.AssetTransaction;
+import com.example.ecom_proj.repository.AssetHolderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the asset → current holder projection (see {@link com.example.ecom_proj.model.AssetHolder}).
+ *
+ * Every path that appends to the transaction log calls {@link #record(AssetTransaction)} in the
+ * same database transaction, so the projection always matches the latest log entry. Each change
+ * also evicts the asset from {@link AssetCache}, since cached assets carry their borrower.
+ */
+@Service
+public class AssetHolderService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetHolderService.class);
+
+    /**
+     * Actions that count as "assigned" — this is a reasonable default:
+     * treat AVAILABLE and IN_USE transaction actions as assignment events
+     * (CREATE as a fallback: create might mean initial assignment).
+     */
+    private static final Set<AssetTransaction.TransactionAction> ASSIGNMENT_ACTIONS = EnumSet.of(
+            AssetTransaction.TransactionAction.IN_USE,
+            AssetTransaction.TransactionAction.AVAILABLE,
+            AssetTransaction.TransactionAction.CREATE
+    );
+
+    private final AssetHolderRepository repository;
+    private final AssetCache assetCache;
+    private final SchemaMigrations migrations;
+
+    public AssetHolderService(AssetHolderRepository repository, AssetCache assetCache, SchemaMigrations migrations) {
+        this.repository = repository;
+        this.assetCache = assetCache;
+        this.migrations = migrations;
+    }
+
+    public static boolean indicatesAssignment(AssetTransaction.TransactionAction action) {
+        return action != null && ASSIGNMENT_ACTIONS.contains(action);
+    }
+
+    /**
+     * Apply a newly logged transaction to the projection.
+     */
+    @Transactional
+    public void record(AssetTransaction tx) {
+        Long assetId = tx.getAsset().getId();
+        assetCache.evict(assetId);
+        if (tx.getUser() == null || !indicatesAssignment(tx.getAction())) {
+            // maintenance/damaged/retire: nobody holds the asset any more
+            repository.deleteByAssetId(assetId);
+            return;
+        }
+        repository.upsert(assetId, tx.getUser().getId(), tx.getTransactionDate(), tx.getId());
+    }
+
+    /**
+     * Drop the holder row of an asset (e.g. when the asset itself is deleted).
+     */
+    @Transactional
+    public void clear(Long assetId) {
+        repository.deleteByAssetId(assetId);
+        assetCache.evict(assetId);
+    }
+
+    /**
+     * Recompute a single asset's holder from the log — used when log entries are edited or removed.
+     */
+    @Transactional
+    public void refresh(Long assetId) {
+        repository.deleteByAssetId(assetId);
+        repository.insertFromLatestTransaction(assetId, assignmentActionNames());
+        assetCache.evict(assetId);
+    }
+
+    /**
+     * Regenerate the whole projection from the transaction log.
+     *
+     * @return number of holder rows written
+     */
+    @Transactional
+    public int rebuild() {
+        int removed = repository.deleteAllRows();
+        int written = repository.insertFromLatestTransactions(assignmentActionNames());
+        assetCache.evictAll();
+        log.info("Rebuilt asset holder projection: {} rows removed, {} rows written", removed, written);
+        return written;
+    }
+
+    /**
+     * Backfill the projection once, on the first start after it was introduced (the table is created
+     * empty). Recorded in schema_migration, since an empty table is also normal when nothing is borrowed.
+     * Rows already written by {@link #record} for requests served during startup are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        migrations.runOnce("asset_holder_backfill", "asset holder projection backfill", () -> {
+            int written = repository.insertFromLatestTransactions(assignmentActionNames());
+            assetCache.evictAll();
+            log.info("Backfilled asset holder projection: {} rows written", written);
+        });
+    }
+
+    /**
+     * Current holders of the given assets, keyed by asset id. Assets without a holder are absent.
+     */
+    public Map<Long, BorrowedBy> findHolders(Collection<Long> assetIds) {
+        Map<Long, BorrowedBy> holders = new HashMap<>();
+        if (assetIds.isEmpty()) {
+            return holders;
+        }
+        for (AssetHolderRepository.HolderView view : repository.findHoldersByAssetIds(assetIds)) {
+            holders.put(view.getAssetId(), new BorrowedBy(view.getUserId(), view.getUsername()));
+        }
+        return holders;
+    }
+
+    private static List<String> assignmentActionNames() {
+        return ASSIGNMENT_ACTIONS.stream().map(Enum::name).toList();
+    }
+}
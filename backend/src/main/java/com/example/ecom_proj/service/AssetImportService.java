@@ -0,0 +1,438 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.dto.AssetImportResult;
+import com.example.ecom_proj.dto.AssetImportRow;
+import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.model.AssetCategory;
+import com.example.ecom_proj.model.AssetTransaction;
+import com.example.ecom_proj.repository.AssetCategoryRepository;
+import com.example.ecom_proj.repository.PooledIdAllocator;
+import com.example.ecom_proj.security.ActingUser;
+import com.example.ecom_proj.security.JwtPrincipal;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk asset import (POST /assets/import) from a CSV file or a JSON array, read as a stream.
+ *
+ * NOTE: Each chunk of rows costs one duplicate query (names and serials together) and one JDBC
+ * batch per table, instead of the ~8 statements per asset that createAsset issues. Every imported
+ * asset gets the same records createAsset would write: a CREATE transaction by the importing user,
+ * the matching asset_holder row, and the transaction + asset audit entries.
+ * Invalid rows are skipped and reported; valid rows are imported in one database transaction.
+ */
+@Service
+public class AssetImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetImportService.class);
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetCategoryRepository categoryRepository;
+    private final ActingUser actingUser;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PooledIdAllocator idAllocator;
+    private final DashboardCounterService counters;
+    private final CategoryCountCache categoryCounts;
+
+    public AssetImportService(JdbcTemplate jdbcTemplate, AssetCategoryRepository categoryRepository, ActingUser actingUser, Validator validator, ObjectMapper objectMapper, PooledIdAllocator idAllocator, DashboardCounterService counters, CategoryCountCache categoryCounts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryRepository = categoryRepository;
+        this.actingUser = actingUser;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.idAllocator = idAllocator;
+        this.counters = counters;
+        this.categoryCounts = categoryCounts;
+    }
+
+    // -------------------------
+    // Entry points
+    // -------------------------
+
+    /**
+     * CSV with a header line. Recognised columns (any order, case-insensitive, camelCase or snake_case):
+     * name, serialNumber, categoryId, categoryName (or category), status, purchaseDate (yyyy-MM-dd), cost, imageUrl.
+     */
+    @Transactional
+    public AssetImportResult importCsv(InputStream in) {
+        Run run = new Run();
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        CsvRecords records = new CsvRecords(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeHeader(header.get(i)), i);
+        }
+
+        List<String> record;
+        while ((record = records.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue; // blank line
+            int rowNumber = ++run.received;
+            AssetImportRow row;
+            try {
+                row = fromCsv(record, columns);
+            } catch (RuntimeException e) {
+                run.reject(rowNumber, null, "Unreadable row: " + e.getMessage());
+                continue;
+            }
+            run.accept(rowNumber, row);
+        }
+        return run.finish();
+    }
+
+    /**
+     * JSON array of objects shaped like {@link AssetImportRow} (or like the Asset body of POST /assets).
+     */
+    @Transactional
+    public AssetImportResult importJson(InputStream in) {
+        Run run = new Run();
+        try (MappingIterator<AssetImportRow> rows = objectMapper.readerFor(AssetImportRow.class).readValues(in)) {
+            while (rows.hasNextValue()) {
+                int rowNumber = ++run.received;
+                try {
+                    run.accept(rowNumber, rows.nextValue());
+                } catch (JsonParseException e) {
+                    // malformed JSON: nothing after this point can be read
+                    run.reject(rowNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (IOException e) {
+                    run.reject(rowNumber, null, "Unreadable row: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            run.reject(run.received + 1, null, "Malformed JSON: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    // -------------------------
+    // Import run: validation, chunking and batch writes
+    // -------------------------
+    private class Run {
+        private final long started = System.nanoTime();
+        private final Map<Long, AssetCategory> categoriesById = new HashMap<>();
+        private final Map<String, AssetCategory> categoriesByName = new HashMap<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final Set<String> seenSerials = new HashSet<>();
+        private final List<Pending> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<AssetImportResult.RowError> errors = new ArrayList<>();
+        private final JwtPrincipal actor;
+        private int received;
+        private int imported;
+        private int failed;
+
+        Run() {
+            for (AssetCategory category : categoryRepository.findAll()) {
+                categoriesById.put(category.getId(), category);
+                categoriesByName.put(category.getName().toLowerCase(Locale.ROOT), category);
+            }
+            actor = actingUser.require();
+        }
+
+        void accept(int rowNumber, AssetImportRow row) {
+            Asset asset = new Asset();
+            asset.setName(trimToNull(row.getName()));
+            asset.setSerialNumber(trimToNull(row.getSerialNumber()));
+            asset.setPurchaseDate(row.getPurchaseDate());
+            asset.setCost(row.getCost());
+            asset.setImageUrl(trimToNull(row.getImageUrl()));
+            asset.setStatus(Asset.AssetStatus.AVAILABLE);
+            if (row.getStatus() != null && !row.getStatus().isBlank()) {
+                try {
+                    asset.setStatus(Asset.AssetStatus.valueOf(row.getStatus().trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    reject(rowNumber, asset.getSerialNumber(), "Unknown status: " + row.getStatus());
+                    return;
+                }
+            }
+
+            if (row.getCategoryId() != null) {
+                asset.setCategory(categoriesById.get(row.getCategoryId()));
+            } else if (row.getCategoryName() != null) {
+                asset.setCategory(categoriesByName.get(row.getCategoryName().trim().toLowerCase(Locale.ROOT)));
+            }
+            if (asset.getCategory() == null && (row.getCategoryId() != null || row.getCategoryName() != null)) {
+                reject(rowNumber, asset.getSerialNumber(), "Unknown category: "
+                        + (row.getCategoryId() != null ? row.getCategoryId() : row.getCategoryName()));
+                return;
+            }
+
+            // Same rules as POST /assets: bean validation plus the image requirement from createAsset
+            Set<ConstraintViolation<Asset>> violations = validator.validate(asset);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, asset.getSerialNumber(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (asset.getImageUrl() == null) {
+                reject(rowNumber, asset.getSerialNumber(), "Asset image is required");
+                return;
+            }
+
+            // Duplicates within the file; duplicates against the table are checked per chunk
+            if (!seenNames.add(asset.getName())) {
+                reject(rowNumber, asset.getSerialNumber(), "Duplicate name in import: " + asset.getName());
+                return;
+            }
+            if (!seenSerials.add(asset.getSerialNumber())) {
+                reject(rowNumber, asset.getSerialNumber(), "Duplicate serial number in import: " + asset.getSerialNumber());
+                return;
+            }
+
+            chunk.add(new Pending(rowNumber, asset));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int rowNumber, String serialNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AssetImportResult.RowError(rowNumber, serialNumber, message));
+            }
+        }
+
+        AssetImportResult finish() {
+            flush();
+            long durationMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Imported {} of {} assets in {} ms ({} failed)", imported, received, durationMs, failed);
+            return AssetImportResult.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .durationMs(durationMs)
+                    .rowsPerSecond(received * 1000L / durationMs)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) return;
+
+            Set<String> existingNames = new HashSet<>();
+            Set<String> existingSerials = new HashSet<>();
+            findExisting(chunk, existingNames, existingSerials);
+
+            List<Pending> accepted = new ArrayList<>(chunk.size());
+            for (Pending p : chunk) {
+                if (existingNames.contains(p.asset.getName())) {
+                    reject(p.row, p.asset.getSerialNumber(), "Asset with name already exists: " + p.asset.getName());
+                } else if (existingSerials.contains(p.asset.getSerialNumber())) {
+                    reject(p.row, p.asset.getSerialNumber(), "Asset with serial number already exists: " + p.asset.getSerialNumber());
+                } else {
+                    accepted.add(p);
+                }
+            }
+            chunk.clear();
+
+            if (!accepted.isEmpty()) {
+                write(accepted, actor);
+                imported += accepted.size();
+                counters.assetsChanged(accepted.size());
+                counters.transactionsChanged(accepted.size());
+                categoryCounts.evict();
+            }
+        }
+    }
+
+    private record Pending(int row, Asset asset) {}
+
+    /**
+     * One set-based lookup for every name and serial number of the chunk.
+     */
+    private void findExisting(List<Pending> chunk, Set<String> names, Set<String> serials) {
+        Object[] chunkNames = chunk.stream().map(p -> p.asset().getName()).toArray();
+        Object[] chunkSerials = chunk.stream().map(p -> p.asset().getSerialNumber()).toArray();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(
+                    "SELECT name, serial_number FROM asset WHERE name = ANY (?) OR serial_number = ANY (?)");
+            ps.setArray(1, con.createArrayOf("varchar", chunkNames));
+            ps.setArray(2, con.createArrayOf("varchar", chunkSerials));
+            return ps;
+        }, rs -> {
+            names.add(rs.getString("name"));
+            serials.add(rs.getString("serial_number"));
+        });
+    }
+
+    private void write(List<Pending> accepted, JwtPrincipal actor) {
+        int n = accepted.size();
+        List<Long> assetIds = idAllocator.allocate("asset_seq", n);
+        List<Long> transactionIds = idAllocator.allocate("asset_transaction_seq", n);
+        List<Long> auditIds = idAllocator.allocate("audit_seq", 2 * n);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String action = AssetTransaction.TransactionAction.CREATE.name();
+
+        List<Object[]> assetRows = new ArrayList<>(n);
+        List<Object[]> transactionRows = new ArrayList<>(n);
+        List<Object[]> holderRows = new ArrayList<>(n);
+        List<Object[]> auditRows = new ArrayList<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            Asset asset = accepted.get(i).asset();
+            String before = asset.toString();
+            asset.setId(assetIds.get(i));
+            Long txId = transactionIds.get(i);
+
+            assetRows.add(new Object[]{asset.getId(), asset.getName(), asset.getSerialNumber(),
+                    asset.getCategory() != null ? asset.getCategory().getId() : null, asset.getStatus().name(),
+                    asset.getPurchaseDate(), asset.getCost(), asset.getImageUrl()});
+            transactionRows.add(new Object[]{txId, asset.getId(), actor.id(), action, now,
+                    "Created new Asset " + asset.getName()});
+            holderRows.add(new Object[]{asset.getId(), actor.id(), now, txId});
+            // Same two audit entries createAsset writes: the transaction, then the asset itself
+            auditRows.add(new Object[]{auditIds.get(2 * i), "AssetTransaction", txId, action, null,
+                    "Transaction: " + action + " for asset: " + asset.getName(), actor.username(), now});
+            auditRows.add(new Object[]{auditIds.get(2 * i + 1), truncate(asset.getName(), 100), asset.getId(), "CREATE",
+                    before, asset.toString(), actor.username(), now});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO asset (id, name, serial_number, category_id, status, purchase_date, cost, image_url, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", assetRows);
+        jdbcTemplate.batchUpdate("INSERT INTO asset_transaction (id, asset_id, user_id, action, transaction_date, notes) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", transactionRows);
+        jdbcTemplate.batchUpdate("INSERT INTO asset_holder (asset_id, holder_id, since, source_transaction_id) "
+                + "VALUES (?, ?, ?, ?)", holderRows);
+        jdbcTemplate.batchUpdate("INSERT INTO audit (id, entity_name, entity_id, action_type, old_value, new_value, performed_by, performed_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", auditRows);
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private static AssetImportRow fromCsv(List<String> record, Map<String, Integer> columns) {
+        AssetImportRow row = new AssetImportRow();
+        row.setName(field(record, columns, "name"));
+        row.setSerialNumber(field(record, columns, "serialnumber"));
+        row.setCategoryName(field(record, columns, "categoryname"));
+        if (row.getCategoryName() == null) {
+            row.setCategoryName(field(record, columns, "category"));
+        }
+        row.setStatus(field(record, columns, "status"));
+        row.setImageUrl(field(record, columns, "imageurl"));
+
+        String categoryId = field(record, columns, "categoryid");
+        String purchaseDate = field(record, columns, "purchasedate");
+        String cost = field(record, columns, "cost");
+        row.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+        row.setPurchaseDate(purchaseDate != null ? LocalDate.parse(purchaseDate) : null);
+        row.setCost(cost != null ? Double.valueOf(cost) : null);
+        return row;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) return null;
+        return trimToNull(record.get(index));
+    }
+
+    private static String normalizeHeader(String header) {
+        return header.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String truncate(String val, int maxLen) {
+        if (val == null) return null;
+        return val.length() > maxLen ? val.substring(0, maxLen) : val;
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    static final class CsvRecords {
+        private final Reader reader;
+        private boolean eof;
+
+        CsvRecords(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Next record, or null at end of input.
+         */
+        List<String> next() {
+            if (eof) return null;
+            try {
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                boolean any = false;
+                int c;
+                while ((c = reader.read()) != -1) {
+                    any = true;
+                    if (quoted) {
+                        if (c == '"') {
+                            reader.mark(1);
+                            int nextChar = reader.read();
+                            if (nextChar == '"') {
+                                field.append('"');
+                            } else {
+                                quoted = false;
+                                if (nextChar != -1) reader.reset();
+                            }
+                        } else {
+                            field.append((char) c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n') {
+                        fields.add(field.toString());
+                        return fields;
+                    } else if (c != '\r') {
+                        field.append((char) c);
+                    }
+                }
+                eof = true;
+                if (!any) return null;
+                fields.add(field.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
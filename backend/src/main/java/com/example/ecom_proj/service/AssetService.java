@@ -7,20 +7,20 @@ import com.example.ecom_proj.exceptions.AssetAlreadyExistsException;
 import com.example.ecom_proj.exceptions.AssetNotFoundException;
 import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.AssetTransaction;
-import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.repository.AssetRepository;
 import com.example.ecom_proj.repository.AssetSpecification;
-import com.example.ecom_proj.repository.AssetTransactionRepository;
+import com.example.ecom_proj.repository.KeysetPagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * AssetService — provides asset CRUD and search.
@@ -33,13 +33,21 @@ public class AssetService {
     private final AssetRepository repository;
     private final AuditService auditService;
     private final AssetTransactionService assetTransactionService;
-    private final AssetTransactionRepository transactionRepository;
+    private final AssetHolderService holderService;
+    private final AssetCache assetCache;
+    private final ExportService exportService;
+    private final DashboardCounterService counters;
+    private final CategoryCountCache categoryCounts;
 
-    public AssetService(AssetRepository repository, AuditService auditService, AssetTransactionService assetTransactionService, AssetTransactionRepository transactionRepository) {
+    public AssetService(AssetRepository repository, AuditService auditService, AssetTransactionService assetTransactionService, AssetHolderService holderService, AssetCache assetCache, ExportService exportService, DashboardCounterService counters, CategoryCountCache categoryCounts) {
         this.repository = repository;
         this.auditService = auditService;
         this.assetTransactionService = assetTransactionService;
-        this.transactionRepository = transactionRepository;
+        this.holderService = holderService;
+        this.assetCache = assetCache;
+        this.exportService = exportService;
+        this.counters = counters;
+        this.categoryCounts = categoryCounts;
     }
 
     // -------------------------
@@ -47,32 +55,56 @@ public class AssetService {
     // -------------------------
     public List<Asset> getAllAssets() {
         List<Asset> assets = repository.findAll();
-        // Attach borrower info to each asset (if any)
-        assets.forEach(this::attachBorrowerInfo);
+        // Attach borrower info to all assets in one lookup
+        attachBorrowerInfo(assets);
         return assets;
     }
 
+    /**
+     * Every asset streamed from a database cursor, with borrower info resolved per chunk.
+     */
+    public StreamingResponseBody exportAssets(ExportService.Format format) {
+        ExportService.Columns<Asset> columns = new ExportService.Columns<Asset>()
+                .add("id", Asset::getId)
+                .add("name", Asset::getName)
+                .add("serialNumber", Asset::getSerialNumber)
+                .add("category", a -> a.getCategory() != null ? a.getCategory().getName() : null)
+                .add("status", Asset::getStatus)
+                .add("purchaseDate", Asset::getPurchaseDate)
+                .add("cost", Asset::getCost)
+                .add("imageUrl", Asset::getImageUrl)
+                .add("borrowedBy", a -> a.getBorrowedBy() != null ? a.getBorrowedBy().getUsername() : null);
+        return exportService.export(repository::streamAll, format, columns, this::attachBorrowerInfo);
+    }
+
+    /**
+     * Served from {@link AssetCache}; every write path below evicts the asset it touches.
+     */
     public Asset getAssetById(Long id) {
-        Asset asset = repository.findById(id).orElseThrow(() -> new AssetNotFoundException(id));
-        attachBorrowerInfo(asset);
-        return asset;
+        return assetCache.get(id, key -> {
+            Asset asset = repository.findById(key).orElseThrow(() -> new AssetNotFoundException(key));
+            attachBorrowerInfo(asset);
+            return asset;
+        });
     }
 
     /**
      * Search with pagination. Existing search criteria code preserved; after resolving page,
      * attach borrower info to each content element.
+     *
+     * Offset pages by default; keyset pages when criteria.cursor is set. Returns a Page when
+     * the total was counted, otherwise a Slice.
      */
-    public Page<Asset> searchAssets(AssetSearchCriteria criteria) {
+    public Slice<Asset> searchAssets(AssetSearchCriteria criteria) {
         // Build specification and pageable (this mirrors earlier code in your codebase)
         Pageable pageable = buildPageable(criteria);
-        Page<Asset> page = repository.findAll(AssetSpecification.withCriteria(criteria), pageable);
+        Slice<Asset> page = KeysetPagination.fetch(repository, AssetSpecification.withCriteria(criteria), pageable,
+                criteria.getCursor(), !Boolean.FALSE.equals(criteria.getIncludeTotal()));
 
-        // Attach borrower info to page content
-        List<Asset> contentWithBorrower = page.getContent().stream()
-                .peek(this::attachBorrowerInfo)
-                .collect(Collectors.toList());
+        // Attach borrower info to page content (single query for the whole page)
+        attachBorrowerInfo(page.getContent());
 
-        return new PageImpl<>(contentWithBorrower, pageable, page.getTotalElements());
+        return page;
     }
 
     // -------------------------
@@ -95,6 +127,9 @@ public class AssetService {
         }
 
         Asset saved = repository.save(asset);
+        assetCache.evict(saved.getId());
+        categoryCounts.evict();
+        counters.assetsChanged(1);
 
         assetTransactionService.logTransaction(
                 saved,
@@ -140,6 +175,8 @@ public class AssetService {
         // If category is null or doesn't have ID, keep the existing category
 
         Asset updated = repository.save(existing);
+        assetCache.evict(updated.getId());
+        categoryCounts.evict(); // category or status may have changed
 
         AssetTransaction.TransactionAction actionEnum = getTransactionAction(updated);
 
@@ -168,6 +205,8 @@ public class AssetService {
 
 
         existing.setStatus(Asset.AssetStatus.RETIRED);
+        assetCache.evict(id);
+        categoryCounts.evict();
 
         AssetTransaction.TransactionAction actionEnum = getTransactionAction(existing);
 
@@ -201,6 +240,10 @@ public class AssetService {
         );
 
         repository.deleteById(id);
+        holderService.clear(id);
+        assetCache.evict(id);
+        categoryCounts.evict();
+        counters.assetsChanged(-1);
 
         auditService.log("DELETE",
                 existing.getName(),
@@ -215,61 +258,39 @@ public class AssetService {
     // -------------------------
     /**
      * Attach BorrowedBy DTO if this asset is IN_USE and a recent transaction indicates assignment.
-     *
-     * NOTE: This method uses the latest AssetTransaction (transactionDate desc). If the asset status
-     * is IN_USE and the latest transaction's user exists, we set that user as the borrowedBy.
-     *
-     * Reasoning:
-     * - avoids DB schema changes
-     * - uses transaction logs as source-of-truth for "who got it last"
-     *
-     * If your workflow differs (e.g. you write explicit BORROW/RETURN actions), adapt the
-     * action-checking logic below.
      */
     private void attachBorrowerInfo(Asset asset) {
         if (asset == null) return;
+        attachBorrowerInfo(List.of(asset));
+    }
 
-        // reset by default
-        asset.setBorrowedBy(null);
-
-        if (asset.getStatus() == null) return;
-
-        // Only attempt to find a borrower if the asset is currently in use
-        if (asset.getStatus() != Asset.AssetStatus.IN_USE) {
-            return;
-        }
-
-        // Find last transaction for asset
-        Optional<AssetTransaction> lastTxOpt = transactionRepository.findTopByAssetIdOrderByTransactionDateDesc(asset.getId());
-
-        if (lastTxOpt.isEmpty()) {
-            return;
+    /**
+     * Attach BorrowedBy DTOs to every IN_USE asset in the list.
+     *
+     * NOTE: The holder comes from the asset_holder projection, which is maintained from the
+     * AssetTransaction log on every write (see AssetHolderService). Reading it is a single join
+     * for the whole list, independent of how large the transaction log grows.
+     */
+    private void attachBorrowerInfo(List<Asset> assets) {
+        // reset by default, and collect the assets that are currently in use
+        List<Long> inUseIds = new ArrayList<>();
+        for (Asset asset : assets) {
+            asset.setBorrowedBy(null);
+            if (asset.getStatus() == Asset.AssetStatus.IN_USE && asset.getId() != null) {
+                inUseIds.add(asset.getId());
+            }
         }
 
-        AssetTransaction lastTx = lastTxOpt.get();
-        if (lastTx.getUser() == null) {
+        if (inUseIds.isEmpty()) {
             return;
         }
 
-        // Decide which actions count as "assigned" — this is a reasonable default:
-        // treat AVAILABLE and IN_USE transaction actions as assignment events.
-        AssetTransaction.TransactionAction action = lastTx.getAction();
-        boolean actionIndicatesAssigned = action == AssetTransaction.TransactionAction.IN_USE
-                || action == AssetTransaction.TransactionAction.AVAILABLE
-                || action == AssetTransaction.TransactionAction.CREATE; // fallback: create might mean initial assignment
-
-        if (!actionIndicatesAssigned) {
-            // If latest transaction is a maintenance/damaged/retire action, don't mark borrowedBy
-            return;
+        Map<Long, BorrowedBy> holders = holderService.findHolders(inUseIds);
+        for (Asset asset : assets) {
+            if (asset.getStatus() == Asset.AssetStatus.IN_USE) {
+                asset.setBorrowedBy(holders.get(asset.getId()));
+            }
         }
-
-        // Build BorrowedBy DTO (Users may not have a fullName field; fall back to username)
-        Users u = lastTx.getUser();
-
-
-        // Build and set borrowedBy
-        BorrowedBy borrowedBy = new BorrowedBy(u.getId(), u.getUsername());
-        asset.setBorrowedBy(borrowedBy);
     }
 
     private static AssetTransaction.TransactionAction getTransactionAction(Asset updated) {
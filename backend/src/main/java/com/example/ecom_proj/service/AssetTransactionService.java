@@ -9,18 +9,20 @@ import com.example.ecom_proj.model.AssetTransaction;
 import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.repository.AssetTransactionRepository;
 import com.example.ecom_proj.repository.AssetTransactionSpecification;
+import com.example.ecom_proj.repository.KeysetPagination;
 import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.ActingUser;
+import com.example.ecom_proj.security.JwtPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,11 +34,19 @@ public class AssetTransactionService {
     private final AssetTransactionRepository repository;
     private final AuditService auditService;
     private final UserRepository userRepository;
+    private final AssetHolderService holderService;
+    private final ExportService exportService;
+    private final DashboardCounterService counters;
+    private final ActingUser actingUser;
 
-    public AssetTransactionService(AssetTransactionRepository repository, AuditService auditService, UserRepository userRepository) {
+    public AssetTransactionService(AssetTransactionRepository repository, AuditService auditService, UserRepository userRepository, AssetHolderService holderService, ExportService exportService, DashboardCounterService counters, ActingUser actingUser) {
         this.repository = repository;
         this.auditService = auditService;
         this.userRepository = userRepository;
+        this.holderService = holderService;
+        this.exportService = exportService;
+        this.counters = counters;
+        this.actingUser = actingUser;
     }
 
     public List<AssetTransaction> getAllAssetTransaction() {return repository.findAll();}
@@ -45,6 +55,23 @@ public class AssetTransactionService {
         return repository.findById(id).orElseThrow(() -> new AssetTransactionNotFoundException(id));
     }
 
+    /**
+     * Every transaction streamed from a database cursor (asset, category and user fetched in the same query).
+     */
+    public StreamingResponseBody exportTransactions(ExportService.Format format) {
+        ExportService.Columns<AssetTransaction> columns = new ExportService.Columns<AssetTransaction>()
+                .add("id", AssetTransaction::getId)
+                .add("assetId", t -> t.getAsset().getId())
+                .add("assetName", t -> t.getAsset().getName())
+                .add("username", t -> t.getUser().getUsername())
+                .add("action", AssetTransaction::getAction)
+                .add("transactionDate", AssetTransaction::getTransactionDate)
+                .add("notes", AssetTransaction::getNotes);
+        // chunk is detached at this point, so this never reaches the database
+        return exportService.export(repository::streamAll, format, columns,
+                chunk -> chunk.forEach(t -> t.getUser().setPassword(null)));
+    }
+
     /**
      * Get all transactions linked to a specific asset
      */
@@ -69,18 +96,11 @@ public class AssetTransactionService {
             String notes
     ) {
         try {
-            // Get the currently authenticated user
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated()) {
-                throw new RuntimeException("No authenticated user found");
-            }
+            // Get the currently authenticated user (resolved once per request by the JWT filter)
+            JwtPrincipal actor = actingUser.require();
 
-            String username = auth.getName(); // this is the logged-in username
-
-            Users user = userRepository.findByUsername(username);
-            if (user == null) {
-                throw new RuntimeException("User not found: " + username);
-            }
+            // Reference only: the association needs the id, not the row
+            Users user = userRepository.getReferenceById(actor.id());
 
 
 
@@ -93,7 +113,8 @@ public class AssetTransactionService {
                     .build();
 
             AssetTransaction saved = repository.save(transaction);
-
+            counters.transactionsChanged(1);
+            holderService.record(saved);
 
             auditService.log(
                     action.name(), // e.g., "MAINTENANCE"
@@ -114,16 +135,17 @@ public class AssetTransactionService {
     //Create Search
 
     /**
-     * Search/Filter assets transaction with pagination
+     * Search/Filter assets transaction with pagination (offset, or keyset when a cursor is given)
      */
-    public Page<AssetTransaction> searchAssetsTransaction(AssetTransactionSearchCriteria criteria) {
+    public Slice<AssetTransaction> searchAssetsTransaction(AssetTransactionSearchCriteria criteria) {
         // Build specification from criteria
         Specification<AssetTransaction> spec = AssetTransactionSpecification.withCriteria(criteria);
 
         // Build pageable with sorting
         Pageable pageable = buildPageable(criteria);
 
-        return repository.findAll(spec, pageable);
+        return KeysetPagination.fetch(repository, spec, pageable, criteria.getCursor(),
+                !Boolean.FALSE.equals(criteria.getIncludeTotal()));
     }
 
 
@@ -146,11 +168,14 @@ public class AssetTransactionService {
     }
 
 
+    @Transactional
     public void deleteTransaction(Long id) {
         AssetTransaction existing = repository.findById(id)
                 .orElseThrow(() -> new AssetTransactionNotFoundException(id));
 
         repository.deleteById(id);
+        counters.transactionsChanged(-1);
+        holderService.refresh(existing.getAsset().getId());
         auditService.log("DELETE",
                 existing.getNotes(),
                 existing.getId(),
@@ -190,6 +215,8 @@ public class AssetTransactionService {
         AssetTransaction saved = repository.save(existing);
 
         repository.deleteById(id);
+        counters.transactionsChanged(-1);
+        holderService.refresh(saved.getAsset().getId());
         auditService.log("DELETE",
                 saved.getNotes(),
                 saved.getId(),
@@ -4,17 +4,20 @@ import com.example.ecom_proj.dto.AuditSearchCriteria;
 import com.example.ecom_proj.model.Audit;
 import com.example.ecom_proj.repository.AuditRepository;
 import com.example.ecom_proj.repository.AuditSpecification;
+import com.example.ecom_proj.repository.KeysetPagination;
+import com.example.ecom_proj.security.ActingUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,12 +28,28 @@ public class AuditService {
     private static final Logger log = LoggerFactory.getLogger(AuditService.class);
 
     private final AuditRepository repository;
+    private final ExportService exportService;
+    private final AuditWriter auditWriter;
+    private final boolean asyncEnabled;
 
-    public AuditService(AuditRepository repository) {
+    public AuditService(AuditRepository repository, ExportService exportService, AuditWriter auditWriter,
+                        @Value("${audit.async.enabled:true}") boolean asyncEnabled) {
         this.repository = repository;
+        this.exportService = exportService;
+        this.auditWriter = auditWriter;
+        this.asyncEnabled = asyncEnabled;
     }
 
-    @Transactional
+    /**
+     * Record an audit entry.
+     *
+     * NOTE: With audit.async.enabled (the default) the row goes to {@link AuditWriter} once the caller's
+     * transaction commits (right away when there is none): the request no longer waits on the insert,
+     * and work that rolls back leaves no audit row, as before.
+     * NOTE: The entry only exists in memory between the commit and AuditWriter.submit. A crash in that
+     * window loses it, even with the spool enabled. audit.async.enabled=false closes the window, at the
+     * cost of the insert.
+     */
     public void log(
             String action,
             String entityName,
@@ -39,11 +58,11 @@ public class AuditService {
             String newValue
     ) {
         try {
-            // Get the currently authenticated user
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String performedBy = (auth != null && auth.isAuthenticated())
-                    ? auth.getName()
-                    : "UNKNOWN";
+            // Get the currently authenticated user (set once by the JWT filter)
+            String performedBy = ActingUser.username();
+            if (performedBy == null) {
+                performedBy = "UNKNOWN";
+            }
 
             // Make sure entityName is not null or empty
             if (entityName == null || entityName.trim().isEmpty()) {
@@ -51,8 +70,8 @@ public class AuditService {
             }
 
             Audit audit = Audit.builder()
-                    .performedBy(performedBy)
-                    .actionType(action)
+                    .performedBy(truncate(performedBy, 100))
+                    .actionType(truncate(action, 50))
                     .entityName(truncate(entityName, 100)) // This must not be null/empty
                     .entityId(entityId)
                     .oldValue(oldValue)
@@ -60,7 +79,31 @@ public class AuditService {
                     .performedAt(LocalDateTime.now())
                     .build();
 
-            repository.save(audit);
+            if (audit.getEntityId() == null || audit.getActionType() == null || audit.getActionType().isBlank()) {
+                log.error("Skipping invalid audit entry: action={}, entity={}, id={}", action, entityName, entityId);
+                return;
+            }
+
+            if (!asyncEnabled) {
+                repository.save(audit);
+            } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        submit(audit);
+                    }
+                });
+            } else {
+                submit(audit);
+            }
+        } catch (Exception e) {
+            log.error("Failed to write audit log", e);
+        }
+    }
+
+    private void submit(Audit audit) {
+        try {
+            auditWriter.submit(audit);
         } catch (Exception e) {
             log.error("Failed to write audit log", e);
         }
@@ -71,14 +114,19 @@ public class AuditService {
         return val.length() > maxLen ? val.substring(0, maxLen) : val;
     }
 
-    public Page<Audit> searchAudits(AuditSearchCriteria criteria) {
+    /**
+     * Search audits - offset pages by default, keyset pages when criteria.cursor is set.
+     * Returns a Page when the total was counted, otherwise a Slice.
+     */
+    public Slice<Audit> searchAudits(AuditSearchCriteria criteria) {
         // Build specification from criteria
         Specification<Audit> spec = AuditSpecification.withCriteria(criteria);
 
         // Build pageable with sorting
         Pageable pageable = buildPageable(criteria);
 
-        return repository.findAll(spec, pageable);
+        return KeysetPagination.fetch(repository, spec, pageable, criteria.getCursor(),
+                !Boolean.FALSE.equals(criteria.getIncludeTotal()));
     }
 
 
@@ -87,6 +135,22 @@ public class AuditService {
         return repository.findAll();
     }
 
+    /**
+     * Every audit row streamed from a database cursor.
+     */
+    public StreamingResponseBody exportAudits(ExportService.Format format) {
+        ExportService.Columns<Audit> columns = new ExportService.Columns<Audit>()
+                .add("id", Audit::getId)
+                .add("entityName", Audit::getEntityName)
+                .add("entityId", Audit::getEntityId)
+                .add("actionType", Audit::getActionType)
+                .add("oldValue", Audit::getOldValue)
+                .add("newValue", Audit::getNewValue)
+                .add("performedBy", Audit::getPerformedBy)
+                .add("performedAt", Audit::getPerformedAt);
+        return exportService.export(repository::streamAll, format, columns, null);
+    }
+
     public List<Audit> findByActor(String performer) {
         return repository.findByPerformedBy(performer);
     }
@@ -0,0 +1,507 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Audit;
+import com.example.ecom_proj.repository.PooledIdAllocator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Background writer for audit rows: a bounded in-memory queue drained by one worker thread that
+ * inserts in JDBC batches.
+ *
+ * NOTE:
+ *  - A batch is written when it reaches audit.async.batch-size, or audit.async.flush-interval after
+ *    its first entry arrived, whichever comes first.
+ *  - When the queue is full, audit.async.overflow-policy decides: BLOCK waits for space,
+ *    CALLER_RUNS writes the entry synchronously on the calling thread (the default, nothing is lost),
+ *    DROP discards it and counts it.
+ *  - With audit.async.spool.enabled, every entry gets its row id and is appended to a local NDJSON spool
+ *    segment before it is queued. Each segment counts its entries not yet written. After every batch the
+ *    fully written segments are deleted, and the current one is truncated when empty or rotated once it
+ *    passes audit.async.spool.segment-bytes, so the spool only holds what is still in flight.
+ *    Segments left by a crash are replayed on the next start with INSERT ... ON CONFLICT (id) DO NOTHING:
+ *    rows that did reach the table (including the prefix of an interrupted replay) are skipped.
+ *  - The spool covers entries from the moment they are submitted. AuditService submits only after the
+ *    caller's transaction commits, so a crash between that commit and the spool append still loses the
+ *    entry. Spooling earlier would instead replay entries of transactions that then failed to commit.
+ *    Where no audit entry may ever be lost, set audit.async.enabled=false: rows are then inserted in
+ *    the caller's own transaction.
+ *  - A failing batch is retried with backoff; meanwhile the queue fills and the overflow policy applies.
+ */
+@Component
+public class AuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit (id, entity_name, entity_id, action_type, old_value, new_value, performed_by, performed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+
+    public enum OverflowPolicy { BLOCK, CALLER_RUNS, DROP }
+
+    /**
+     * A queued row and the spool segment holding its copy (null when spooling is off).
+     */
+    private record Entry(Audit audit, Segment segment) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PooledIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spoolPath;
+    private final boolean spoolFsync;
+    private final long segmentBytes;
+
+    // Guards the spool segments; only ever held for a file append or a truncate/rotate, never while waiting
+    private final ReentrantLock spoolLock = new ReentrantLock();
+    private final List<Path> leftoverSegments;
+    private final List<Segment> rotated = new ArrayList<>();
+    private Segment current;
+    private long nextSegment;
+
+    private final Object idLock = new Object();
+    private final Deque<Long> reservedIds = new ArrayDeque<>();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       PooledIdAllocator idAllocator,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       @Value("${audit.async.queue-capacity:10000}") int queueCapacity,
+                       @Value("${audit.async.batch-size:200}") int batchSize,
+                       @Value("${audit.async.flush-interval:200ms}") Duration flushInterval,
+                       @Value("${audit.async.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+                       @Value("${audit.async.spool.enabled:false}") boolean spoolEnabled,
+                       @Value("${audit.async.spool.path:audit-spool.ndjson}") String spoolPath,
+                       @Value("${audit.async.spool.fsync:false}") boolean spoolFsync,
+                       @Value("${audit.async.spool.segment-bytes:1048576}") long segmentBytes) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.spoolPath = spoolEnabled ? Path.of(spoolPath).toAbsolutePath() : null;
+        this.spoolFsync = spoolFsync;
+        this.segmentBytes = segmentBytes;
+
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (this.spoolPath != null) {
+            // Whatever a previous run left behind is replayed on start; new entries go to fresh segments
+            this.leftoverSegments = findSegments();
+            this.nextSegment = leftoverSegments.stream().mapToLong(this::segmentNumber).max().orElse(-1) + 1;
+            this.current = openSegment();
+        } else {
+            this.leftoverSegments = List.of();
+        }
+    }
+
+    // -------------------------
+    // Producer side
+    // -------------------------
+
+    /**
+     * Queue an audit row for the background writer (see the class comment for what happens when full).
+     */
+    public void submit(Audit audit) {
+        Segment segment = appendToSpool(audit);
+        // Never under the spool lock: a BLOCK put waits for the worker, which needs that lock after each batch
+        Entry entry = new Entry(audit, segment);
+        if (queue.offer(entry) || overflowPolicy == OverflowPolicy.BLOCK && putBlocking(entry)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        try {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+                callerRuns.incrementAndGet();
+                writeBatch(List.of(audit));
+            } else {
+                dropped.incrementAndGet();
+                log.warn("Audit queue full, dropping entry: {} {} {}", audit.getActionType(), audit.getEntityName(), audit.getEntityId());
+            }
+        } finally {
+            // The worker will never see this entry, so its spooled copy is settled here
+            settled(segment);
+        }
+    }
+
+    private boolean putBlocking(Entry entry) {
+        try {
+            queue.put(entry);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("capacity", queue.size() + queue.remainingCapacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("spool", spoolPath != null ? spoolPath.toString() : null);
+        return stats;
+    }
+
+    // -------------------------
+    // Lifecycle
+    // -------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        replaySpool();
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop the worker and write whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Not interrupted: the worker sees the flag within flush-interval and writes its last batch itself
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            write(rest.subList(i, Math.min(rest.size(), i + batchSize)));
+        }
+        compactSpool();
+        if (current != null) {
+            spoolLock.lock();
+            try {
+                rotated.forEach(Segment::close);
+                current.close();
+            } finally {
+                spoolLock.unlock();
+            }
+        }
+    }
+
+    // -------------------------
+    // Worker
+    // -------------------------
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    collect(batch);
+                }
+                if (batch.isEmpty()) continue;
+
+                write(batch);
+                batch.clear();
+                compactSpool();
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                failedBatches.incrementAndGet();
+                log.error("Failed to write {} audit rows, retrying", batch.size(), e);
+                try {
+                    Thread.sleep(Math.min(5000, flushInterval.toMillis() * 10));
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // still spooled (if enabled), so the next start replays it
+                log.error("Failed to write {} audit rows on shutdown", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Block for the first entry, then linger up to flushInterval for the batch to fill.
+     */
+    private void collect(List<Entry> batch) throws InterruptedException {
+        Entry first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) return;
+        batch.add(first);
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) break;
+            Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        writeBatch(entries.stream().map(Entry::audit).toList());
+        entries.forEach(e -> settled(e.segment()));
+    }
+
+    /**
+     * Insert one batch in its own transaction (REQUIRES_NEW: caller-runs writes happen after the
+     * caller's transaction has committed, where joining it would silently never commit).
+     * Entries that already carry an id (spooled ones) keep it, so writing them twice inserts them once.
+     */
+    void writeBatch(List<Audit> batch) {
+        if (batch.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            int missing = (int) batch.stream().filter(a -> a.getId() == null).count();
+            Iterator<Long> ids = idAllocator.allocate("audit_seq", missing).iterator();
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (Audit a : batch) {
+                Long id = a.getId() != null ? a.getId() : ids.next();
+                rows.add(new Object[]{id, a.getEntityName(), a.getEntityId(), a.getActionType(),
+                        a.getOldValue(), a.getNewValue(), a.getPerformedBy(), Timestamp.valueOf(a.getPerformedAt())});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        });
+        written.addAndGet(batch.size());
+    }
+
+    // -------------------------
+    // Spool file
+    // -------------------------
+
+    /**
+     * Give the entry its row id and append it to the current segment; returns that segment, or null
+     * when spooling is off (or the append failed, in which case the entry is only queued).
+     */
+    private Segment appendToSpool(Audit audit) {
+        if (spoolPath == null) return null;
+        try {
+            if (audit.getId() == null) {
+                audit.setId(nextId());
+            }
+            byte[] line = (objectMapper.writeValueAsString(audit) + "\n").getBytes(StandardCharsets.UTF_8);
+            spoolLock.lock();
+            try {
+                Segment segment = current;
+                segment.outstanding.incrementAndGet();
+                try {
+                    segment.append(line, spoolFsync);
+                } catch (IOException e) {
+                    segment.outstanding.decrementAndGet();
+                    throw e;
+                }
+                return segment;
+            } finally {
+                spoolLock.unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to append audit entry to spool {}", spoolPath, e);
+            return null;
+        }
+    }
+
+    private static void settled(Segment segment) {
+        if (segment != null) {
+            segment.outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Delete rotated segments whose entries are all written; truncate the current one when all of its
+     * entries are written, or rotate it once it is past segmentBytes.
+     */
+    private void compactSpool() {
+        if (spoolPath == null) return;
+        spoolLock.lock();
+        try {
+            for (Iterator<Segment> it = rotated.iterator(); it.hasNext(); ) {
+                Segment segment = it.next();
+                if (segment.outstanding.get() == 0) {
+                    segment.close();
+                    Files.deleteIfExists(segment.path);
+                    it.remove();
+                }
+            }
+            // outstanding is raised under this lock before each append, so 0 here means every line is written
+            if (current.outstanding.get() == 0) {
+                current.truncate();
+            } else if (current.bytes >= segmentBytes) {
+                rotated.add(current);
+                current = openSegment();
+            }
+        } catch (IOException e) {
+            log.error("Failed to compact audit spool {}", spoolPath, e);
+        } finally {
+            spoolLock.unlock();
+        }
+    }
+
+    private long nextId() {
+        synchronized (idLock) {
+            if (reservedIds.isEmpty()) {
+                reservedIds.addAll(idAllocator.allocate("audit_seq", batchSize));
+            }
+            return reservedIds.poll();
+        }
+    }
+
+    private void replaySpool() {
+        int replayed = 0;
+        for (Path path : leftoverSegments) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                List<Audit> batch = new ArrayList<>(batchSize);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        batch.add(objectMapper.readValue(line, Audit.class));
+                    } catch (IOException e) {
+                        // a torn last line from the crash
+                        log.warn("Skipping unreadable audit spool line in {}", path);
+                        continue;
+                    }
+                    if (batch.size() == batchSize) {
+                        writeBatch(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                    }
+                }
+                writeBatch(batch);
+                replayed += batch.size();
+            } catch (IOException | RuntimeException e) {
+                log.error("Audit spool replay failed after {} entries; {} is kept for the next start", replayed, path, e);
+                return;
+            }
+            try {
+                Files.delete(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete replayed audit spool {}", path, e);
+            }
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} audit entries from spool {}", replayed, spoolPath);
+        }
+    }
+
+    /**
+     * Segments of the spool in this directory: "<path>.<n>", plus "<path>" and "<path>.replay" from
+     * before segments existed.
+     */
+    private List<Path> findSegments() throws IOException {
+        String name = spoolPath.getFileName().toString();
+        Pattern pattern = Pattern.compile(Pattern.quote(name) + "(\\.replay|\\.\\d+)?");
+        Path dir = spoolPath.getParent();
+        if (!Files.isDirectory(dir)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> pattern.matcher(f.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(this::segmentNumber))
+                    .toList();
+        }
+    }
+
+    private long segmentNumber(Path path) {
+        String suffix = path.getFileName().toString().substring(spoolPath.getFileName().toString().length());
+        return suffix.matches("\\.\\d+") ? Long.parseLong(suffix.substring(1)) : -1;
+    }
+
+    private Segment openSegment() throws IOException {
+        Path path = spoolPath.resolveSibling(spoolPath.getFileName() + "." + nextSegment++);
+        return new Segment(path);
+    }
+
+    /**
+     * One spool file. Written through a stream rather than a FileChannel: an interrupted request
+     * thread would close a channel for every other writer. Guarded by spoolLock.
+     */
+    private static final class Segment {
+        final Path path;
+        final FileOutputStream out;
+        final AtomicInteger outstanding = new AtomicInteger(); // appended, not yet written (or settled)
+        long bytes;
+
+        Segment(Path path) throws IOException {
+            this.path = path;
+            this.out = new FileOutputStream(path.toFile(), true);
+        }
+
+        void append(byte[] line, boolean fsync) throws IOException {
+            out.write(line);
+            bytes += line.length;
+            if (fsync) {
+                out.getFD().sync();
+            }
+        }
+
+        void truncate() throws IOException {
+            if (bytes == 0) return;
+            // the stream appends, so later writes start at the new end
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(0);
+            }
+            bytes = 0;
+        }
+
+        void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close audit spool segment {}", path, e);
+            }
+        }
+    }
+}
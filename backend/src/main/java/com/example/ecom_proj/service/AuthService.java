@@ -6,17 +6,20 @@ import com.example.ecom_proj.dto.ChangePasswordRequest;
 import com.example.ecom_proj.dto.RegisterRequest;
 import com.example.ecom_proj.exceptions.InvalidCredentialsException;
 import com.example.ecom_proj.exceptions.PasswordMismatchException;
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
 import com.example.ecom_proj.exceptions.UserAlreadyExistsException;
 import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.JwtTokenDetails;
 import com.example.ecom_proj.security.JwtUtil;
+import com.example.ecom_proj.security.LoginThrottle;
+import com.example.ecom_proj.security.TokenDenylist;
+import com.example.ecom_proj.security.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,25 +36,37 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHasher;
     private final AuditService auditService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
+    private final DashboardCounterService counters;
+    private final TokenDenylist tokenDenylist;
+    private final TokenRevocationService revocationService;
+    private final LoginThrottle loginThrottle;
+    private final UserCache userCache;
 
     public AuthService(
             UserRepository userRepository,
-            BCryptPasswordEncoder passwordEncoder,
+            PasswordHashingService passwordHasher,
             AuditService auditService,
             JwtUtil jwtUtil,
             AuthenticationManager authenticationManager,
-            CustomUserDetailsService userDetailsService) {
+            DashboardCounterService counters,
+            TokenDenylist tokenDenylist,
+            TokenRevocationService revocationService,
+            LoginThrottle loginThrottle,
+            UserCache userCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.auditService = auditService;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.counters = counters;
+        this.tokenDenylist = tokenDenylist;
+        this.revocationService = revocationService;
+        this.loginThrottle = loginThrottle;
+        this.userCache = userCache;
     }
 
     /**
@@ -59,39 +74,43 @@ public class AuthService {
      * Now returns JWT token
      *
      * FLOW:
-     * 1. Authenticate username/password using AuthenticationManager
-     * 2. If valid, load user details
+     * 0. Apply the per-username / per-IP login throttle
+     * 1. Authenticate username/password using AuthenticationManager (BCrypt runs on PasswordHashingService)
+     * 2. If valid, load the user
      * 3. Generate JWT token
      * 4. Return token + user info
      */
-    public AuthResponse login(AuthRequest request) {
+    public AuthResponse login(AuthRequest request, String clientIp) {
+        loginThrottle.check(request.getUsername(), clientIp);
+
         try {
             // 1. Authenticate credentials
-            authenticationManager.authenticate(
+            passwordHasher.call(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getUsername(),
                             request.getPassword()
                     )
-            );
+            ));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("Failed login attempt for user: {}", request.getUsername());
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
-        // 2. Load user details
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        final Users user = userRepository.findByUsername(request.getUsername());
+        // 2. Load the user (cached: authentication just refreshed it from the database)
+        final UserCache.Snapshot user = userCache.get(request.getUsername());
 
-        // 3. Generate JWT token
-        final String jwt = jwtUtil.generateToken(userDetails);
+        // 3. Generate JWT token (carries id + role)
+        final String jwt = jwtUtil.generateToken(user.toUser());
 
-        log.info("User {} logged in successfully", user.getUsername());
+        log.info("User {} logged in successfully", user.username());
 
         // 4. Log authentication event
 
         auditService.log("LOGIN",
-                user.getUsername(),
-                user.getId(),
+                user.username(),
+                user.id(),
                 null,
                 null
         );
@@ -99,9 +118,9 @@ public class AuthService {
 
         // 5. Return response with token
         return AuthResponse.builder()
-                .username(user.getUsername())
-                .role(user.getRole())
-                .userId(user.getId())
+                .username(user.username())
+                .role(user.role())
+                .userId(user.id())
                 .token(jwt)
                 .tokenType("Bearer")
                 .message("Login successful")
@@ -127,15 +146,15 @@ public class AuthService {
         // Create new user with VIEWER role (security measure)
         Users newUser = new Users();
         newUser.setUsername(request.getUsername());
-        newUser.setPassword(passwordEncoder.encode(request.getPassword()));
+        newUser.setPassword(passwordHasher.encode(request.getPassword()));
         newUser.setRole(Users.Role.VIEWER);
 
         Users saved = userRepository.save(newUser);
+        counters.usersChanged(1);
         log.info("New user registered: {}", saved.getUsername());
 
         // Generate JWT token for immediate login
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(saved.getUsername());
-        final String jwt = jwtUtil.generateToken(userDetails);
+        final String jwt = jwtUtil.generateToken(saved);
 
         // Log registration event
 
@@ -175,20 +194,21 @@ public class AuthService {
         }
 
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getCurrentPassword(), user.getPassword())) {
             log.warn("Invalid current password attempt for user: {}", username);
             throw new InvalidCredentialsException("Current password is incorrect");
         }
 
         // Prevent using the same password
-        if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
+        if (passwordHasher.matches(request.getNewPassword(), user.getPassword())) {
             throw new PasswordMismatchException("New password must be different from current password");
         }
 
         // Update password
         String oldPasswordHash = user.getPassword();
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHasher.encode(request.getNewPassword()));
         userRepository.save(user);
+        userCache.evict(username);
 
         log.info("Password changed for user: {}", username);
 
@@ -220,21 +240,26 @@ public class AuthService {
     /**
      * Logout
      *
-     * NOTE: With JWT, logout is primarily client-side.
-     * Client should delete the stored token.
-     * Server can optionally maintain a blacklist of tokens (advanced feature).
+     * NOTE: The presented token is revoked server-side (TokenDenylist) until it expires.
+     * Tokens issued before jti existed can't be revoked one by one, so all of the user's tokens are.
      */
-    public void logout(String username) {
+    public void logout(Authentication authentication) {
+        String username = authentication.getName();
+        if (authentication.getDetails() instanceof JwtTokenDetails token && token.jti() != null) {
+            tokenDenylist.revoke(token.jti(), token.expiresAt());
+        } else {
+            revocationService.revokeAll(username);
+        }
         log.info("User {} logged out", username);
 
-        Users user = userRepository.findByUsername(username);
+        UserCache.Snapshot user = userCache.get(username);
         if (user != null) {
 
             auditService.log("LOGOUT",
-                    user.getUsername(),
-                    user.getId(),
+                    user.username(),
+                    user.id(),
                     null,
-                    user.toString()
+                    user.toUser().toString()
             );
 
         }
@@ -1,20 +1,34 @@
 package com.example.ecom_proj.service;
 
+import com.example.ecom_proj.exceptions.BorrowRequestConflictException;
 import com.example.ecom_proj.model.*;
 import com.example.ecom_proj.repository.AssetRepository;
 import com.example.ecom_proj.repository.AssetTransactionRepository;
 import com.example.ecom_proj.repository.BorrowRequestRepository;
 import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.ActingUser;
+import com.example.ecom_proj.security.JwtPrincipal;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Business logic for borrow requests.
  *
  * Note: Uses transactional semantics when approving to ensure Asset state and Transaction row are created atomically.
+ * NOTE: Approve/return/decline load the request with its asset, category and requester in one SELECT,
+ * point at the admin by reference, and change the asset status with a single UPDATE. An approval is six
+ * statements: SELECT + UPDATE borrow_request + UPDATE asset + INSERT asset_transaction + asset_holder
+ * upsert + outbox INSERT (plus a nextval every 50 ids; the audit row is written later, in batches).
+ * NOTE: Status changes are compare-and-set UPDATEs (WHERE status = expected) and the asset UPDATE checks
+ * its @Version, so of two concurrent approvals exactly one wins without taking row locks up front;
+ * the other gets a 409.
  */
 @Service
 public class BorrowRequestService {
@@ -25,14 +39,30 @@ public class BorrowRequestService {
     private final AssetTransactionRepository transactionRepository;
     private final NotificationService notificationService;
     private final AuditService auditService;
-
-    public BorrowRequestService(BorrowRequestRepository borrowRequestRepository, AssetRepository assetRepository, UserRepository userRepository, AssetTransactionRepository transactionRepository, NotificationService notificationService, AuditService auditService) {
+    private final AssetHolderService holderService;
+    private final AssetCache assetCache;
+    private final DashboardCounterService counters;
+    private final ActingUser actingUser;
+    private final EntityManager entityManager;
+    private final UserCache userCache;
+    private final EventStreamPublisher events;
+    private final CategoryCountCache categoryCounts;
+
+    public BorrowRequestService(BorrowRequestRepository borrowRequestRepository, AssetRepository assetRepository, UserRepository userRepository, AssetTransactionRepository transactionRepository, NotificationService notificationService, AuditService auditService, AssetHolderService holderService, AssetCache assetCache, DashboardCounterService counters, ActingUser actingUser, EntityManager entityManager, UserCache userCache, EventStreamPublisher events, CategoryCountCache categoryCounts) {
         this.borrowRequestRepository = borrowRequestRepository;
         this.assetRepository = assetRepository;
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
         this.notificationService = notificationService;
         this.auditService = auditService;
+        this.holderService = holderService;
+        this.assetCache = assetCache;
+        this.counters = counters;
+        this.actingUser = actingUser;
+        this.entityManager = entityManager;
+        this.userCache = userCache;
+        this.events = events;
+        this.categoryCounts = categoryCounts;
     }
 
     // BorrowRequestService.java
@@ -55,60 +85,52 @@ public class BorrowRequestService {
                 return false; // only pending can be cancelled
             }
 
-            // Option A: set status to CANCELLED if your enum supports it.
-            try {
-                br.setStatus(BorrowRequest.Status.DECLINED); // or CANCELLED if you have it; using DECLINED as safe fallback
-                br.setDeclineReason("Cancelled by requester");
-                borrowRequestRepository.save(br);
-                return true;
-            } catch (Exception e) {
-                // fallback to delete if desired:
-                // borrowRequestRepository.delete(br);
+            // DECLINED stands in for a cancelled state; 0 rows means an admin processed it meanwhile
+            if (borrowRequestRepository.transition(requestId, BorrowRequest.Status.PENDING,
+                    BorrowRequest.Status.DECLINED, "Cancelled by requester") == 0) {
                 return false;
             }
+            queueChanged(requestId, BorrowRequest.Status.DECLINED);
+            return true;
         }).orElse(false);
     }
     @Transactional
     public boolean ReturnRequestByRequester(Long requestId, Users requester) {
-        return borrowRequestRepository.findById(requestId).map(br -> {
+        return borrowRequestRepository.findByIdWithAssetAndRequester(requestId).map(br -> {
             if (br.getRequester() == null || !br.getRequester().getId().equals(requester.getId())) {
                 return false; // not owner
             }
             if (br.getStatus() != BorrowRequest.Status.APPROVED) {
-                return false; // only pending can be cancelled
+                return false; // only approved can be returned
             }
 
-
-            try {
-                br.setStatus(BorrowRequest.Status.COMPLETE);
-                br.setDeclineReason("Borrow Complete by requester");
-                borrowRequestRepository.save(br);
-
-                auditService.log("BORROW COMPLETE", // More descriptive action
-                        "BorrowRequest", // Entity Name
-                        requestId, // Entity ID
-                        null, // Old Value
-                        "User '" + requester.getUsername() + " Completed borrow asset" // New Value
-                );
-
-                Asset asset = br.getAsset();
-                asset.setStatus(Asset.AssetStatus.AVAILABLE);
-                assetRepository.save(asset); // persist status change
-
-                // Create a transaction record using the requester as the user
-                AssetTransaction tx = new AssetTransaction();
-                tx.setAsset(asset);
-                tx.setUser(br.getRequester());
-                tx.setAction(AssetTransaction.TransactionAction.IN_USE);
-                tx.setTransactionDate(LocalDateTime.now());
-                tx.setNotes("Approved borrow request id: " + br.getId());
-                transactionRepository.save(tx);
-                return true;
-            } catch (Exception e) {
-                // fallback to delete if desired:
-                // borrowRequestRepository.delete(br);
+            // Compare-and-set: a double-submitted return completes once
+            if (borrowRequestRepository.transition(requestId, BorrowRequest.Status.APPROVED,
+                    BorrowRequest.Status.COMPLETE, "Borrow Complete by requester") == 0) {
                 return false;
             }
+
+            auditService.log("BORROW COMPLETE", // More descriptive action
+                    "BorrowRequest", // Entity Name
+                    requestId, // Entity ID
+                    null, // Old Value
+                    "User '" + requester.getUsername() + " Completed borrow asset" // New Value
+            );
+
+            Asset asset = br.getAsset();
+            updateAssetStatus(asset, Asset.AssetStatus.AVAILABLE);
+
+            // Create a transaction record using the requester as the user
+            AssetTransaction tx = new AssetTransaction();
+            tx.setAsset(asset);
+            tx.setUser(br.getRequester());
+            tx.setAction(AssetTransaction.TransactionAction.IN_USE);
+            tx.setTransactionDate(LocalDateTime.now());
+            tx.setNotes("Approved borrow request id: " + br.getId());
+            transactionRepository.save(tx);
+            counters.transactionsChanged(1);
+            holderService.record(tx);
+            return true;
         }).orElse(false);
     }
 
@@ -116,6 +138,7 @@ public class BorrowRequestService {
     // -----------------------
     // Create request
     // -----------------------
+    @Transactional
     public BorrowRequest createRequest(Long requesterId, Long assetId, String note) {
         Asset asset = assetRepository.findById(assetId)
                 .orElseThrow(() -> new RuntimeException("Asset not found: " + assetId)); // swap to your AssetNotFoundException if preferred
@@ -141,22 +164,11 @@ public class BorrowRequestService {
                 "User '" + saved.getRequester().getUsername() + "' requested asset '" + saved.getAsset().getName() + "'" // New Value
         );
 
-        // Notify all admins: simple approach — find admin users via repo (you might have roles)
-        // We'll try to find users with role ADMIN using UserRepository. If none, skip notification.
-        // NOTE: This assumes Users.role exists and UserRepository has a findByRole method — if not, fall back to sending to a single system user.
-        try {
-            List<Users> admins = userRepository.findAll().stream()
-                    .filter(u -> u.getRole() != null && u.getRole().name().equalsIgnoreCase("ADMIN"))
-                    .toList();
-
-            String msg = "New borrow request (" + saved.getId() + ") for asset: " + asset.getName();
-
-            for (Users admin : admins) {
-                notificationService.createNotification(admin, msg);
-            }
-        } catch (Exception e) {
-            // Don't fail if notification creation fails.
-        }
+        // Notify all admins. Their ids are cached (one id-only query per TTL or role change); the outbox
+        // row commits with the request and the notifications are inserted by the dispatcher.
+        String msg = "New borrow request (" + saved.getId() + ") for asset: " + asset.getName();
+        notificationService.notifyAfterCommit(userCache.idsByRole(Users.Role.ADMIN), msg);
+        queueChanged(saved.getId(), BorrowRequest.Status.PENDING);
 
         return saved;
     }
@@ -173,26 +185,28 @@ public class BorrowRequestService {
     // -----------------------
     @Transactional
     public BorrowRequest approveRequest(Long requestId, Long adminId) {
-        BorrowRequest req = borrowRequestRepository.findById(requestId)
+        BorrowRequest req = borrowRequestRepository.findByIdWithAssetAndRequester(requestId)
                 .orElseThrow(() -> new RuntimeException("BorrowRequest not found: " + requestId));
 
         if (req.getStatus() != BorrowRequest.Status.PENDING) {
-            throw new RuntimeException("BorrowRequest is not pending");
+            throw new BorrowRequestConflictException(requestId, "PENDING");
         }
 
-        Users admin = userRepository.findById(adminId)
-                .orElseThrow(() -> new RuntimeException("Admin user not found: " + adminId));
+        // Only the FK is written, so no SELECT for the admin row
+        Users admin = userRepository.getReferenceById(adminId);
 
-        // Set request as approved
-        req.setStatus(BorrowRequest.Status.APPROVED);
-        req.setProcessedBy(admin);
-        req.setProcessedAt(LocalDateTime.now());
-        BorrowRequest saved = borrowRequestRepository.save(req);
+        // Set request as approved, unless a concurrent call already processed it
+        LocalDateTime processedAt = LocalDateTime.now();
+        if (borrowRequestRepository.transitionProcessed(requestId, BorrowRequest.Status.PENDING,
+                BorrowRequest.Status.APPROVED, admin, processedAt, null) == 0) {
+            throw new BorrowRequestConflictException(requestId, "PENDING");
+        }
+        BorrowRequest saved = applyProcessed(req, BorrowRequest.Status.APPROVED, admin, processedAt, null);
+        queueChanged(requestId, BorrowRequest.Status.APPROVED);
 
         // Update asset status -> IN_USE
         Asset asset = req.getAsset();
-        asset.setStatus(Asset.AssetStatus.IN_USE);
-        assetRepository.save(asset); // persist status change
+        updateAssetStatus(asset, Asset.AssetStatus.IN_USE);
 
         // Create a transaction record using the requester as the user
         AssetTransaction tx = new AssetTransaction();
@@ -202,19 +216,19 @@ public class BorrowRequestService {
         tx.setTransactionDate(LocalDateTime.now());
         tx.setNotes("Approved borrow request id: " + req.getId());
         transactionRepository.save(tx);
+        counters.transactionsChanged(1);
+        holderService.record(tx);
 
         auditService.log("BORROW APPROVED",
                 String.valueOf(req.getRequester().getUsername()),
                 req.getId(),
-                req.getProcessedBy().getUsername(),
+                processedByName(adminId, admin),
                 String.valueOf(saved.getProcessedAt())
         );
 
-        // Notify requester
+        // Notify requester (outbox row, delivered after commit)
         String msg = "Your borrow request (" + req.getId() + ") for asset '" + asset.getName() + "' has been APPROVED.";
-        try {
-            notificationService.createNotification(req.getRequester(), msg);
-        } catch (Exception ignore) {}
+        notificationService.notifyAfterCommit(List.of(req.getRequester().getId()), msg);
 
         return saved;
     }
@@ -224,37 +238,87 @@ public class BorrowRequestService {
     // -----------------------
     @Transactional
     public BorrowRequest declineRequest(Long requestId, Long adminId, String reason) {
-        BorrowRequest req = borrowRequestRepository.findById(requestId)
+        BorrowRequest req = borrowRequestRepository.findByIdWithAssetAndRequester(requestId)
                 .orElseThrow(() -> new RuntimeException("BorrowRequest not found: " + requestId));
 
         if (req.getStatus() != BorrowRequest.Status.PENDING) {
-            throw new RuntimeException("BorrowRequest is not pending");
+            throw new BorrowRequestConflictException(requestId, "PENDING");
         }
 
-        Users admin = userRepository.findById(adminId)
-                .orElseThrow(() -> new RuntimeException("Admin user not found: " + adminId));
+        Users admin = userRepository.getReferenceById(adminId);
 
-        req.setStatus(BorrowRequest.Status.DECLINED);
-        req.setProcessedBy(admin);
-        req.setProcessedAt(LocalDateTime.now());
-        req.setDeclineReason(reason);
-        BorrowRequest saved = borrowRequestRepository.save(req);
+        LocalDateTime processedAt = LocalDateTime.now();
+        if (borrowRequestRepository.transitionProcessed(requestId, BorrowRequest.Status.PENDING,
+                BorrowRequest.Status.DECLINED, admin, processedAt, reason) == 0) {
+            throw new BorrowRequestConflictException(requestId, "PENDING");
+        }
+        BorrowRequest saved = applyProcessed(req, BorrowRequest.Status.DECLINED, admin, processedAt, reason);
+        queueChanged(requestId, BorrowRequest.Status.DECLINED);
 
 
         auditService.log("BORROW DECLINED",
                 String.valueOf(req.getRequester().getUsername()),
                 req.getId(),
-                req.getProcessedBy().getUsername(),
+                processedByName(adminId, admin),
                 String.valueOf(saved.getProcessedAt())
         );
 
         // Notify requester
         String msg = "Your borrow request (" + req.getId() + ") for asset '" + req.getAsset().getName() + "' has been DECLINED."
                 + (reason != null ? " Reason: " + reason : "");
-        try {
-            notificationService.createNotification(req.getRequester(), msg);
-        } catch (Exception ignore) {}
+        notificationService.notifyAfterCommit(List.of(req.getRequester().getId()), msg);
 
         return saved;
     }
+
+    // -----------------------
+    // Helper functions
+    // -----------------------
+
+    /**
+     * One UPDATE for the status, checked against the version read with the request. The loaded asset
+     * is marked read-only and changed in memory only, so the flush doesn't write it a second time.
+     */
+    private void updateAssetStatus(Asset asset, Asset.AssetStatus status) {
+        if (assetRepository.updateStatus(asset.getId(), asset.getVersion(), status) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Asset.class, asset.getId());
+        }
+        entityManager.unwrap(Session.class).setReadOnly(asset, true);
+        asset.setStatus(status);
+        asset.setVersion(asset.getVersion() + 1);
+        assetCache.evict(asset.getId());
+        categoryCounts.evict(); // per-status counts
+    }
+
+    /**
+     * Mirror a transition already written by UPDATE onto the loaded request (for the response), read-only
+     * so it isn't flushed again.
+     */
+    private BorrowRequest applyProcessed(BorrowRequest req, BorrowRequest.Status status, Users admin,
+                                         LocalDateTime processedAt, String reason) {
+        entityManager.unwrap(Session.class).setReadOnly(req, true);
+        req.setStatus(status);
+        req.setProcessedBy(admin);
+        req.setProcessedAt(processedAt);
+        req.setDeclineReason(reason);
+        return req;
+    }
+
+    /**
+     * Tell open admin/staff event streams that the pending queue changed (after commit).
+     */
+    private void queueChanged(Long requestId, BorrowRequest.Status status) {
+        events.toStaff("borrow-request", Map.of("id", requestId, "status", status));
+    }
+
+    /**
+     * The admin's name from the JWT when they are the caller; only otherwise is the reference loaded.
+     */
+    private String processedByName(Long adminId, Users admin) {
+        JwtPrincipal actor = actingUser.get();
+        if (actor != null && actor.id().equals(adminId)) {
+            return actor.username();
+        }
+        return admin.getUsername();
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.dto.AssetCategoryDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The category listing with asset counts (GET /asset-categories), with and without the per-status
+ * breakdown.
+ *
+ * NOTE: Every path that creates, deletes, re-categorises or changes the status of assets, and every
+ * category write, calls {@link #evict()}. Like AssetCache, entries are dropped immediately and again when
+ * the surrounding transaction completes, so a listing loaded mid-write cannot outlive it.
+ * NOTE: Evictions only reach this instance; writes on other instances (or straight SQL) show up once the
+ * listing expires after category.count-cache.ttl.
+ */
+@Component
+public class CategoryCountCache {
+
+    private final Cache<Boolean, List<AssetCategoryDTO>> cache;
+
+    public CategoryCountCache(@Value("${category.count-cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(2)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * The cached listing, or the loader's result (which is cached).
+     */
+    public List<AssetCategoryDTO> get(boolean byStatus, Supplier<List<AssetCategoryDTO>> loader) {
+        return cache.get(byStatus, key -> List.copyOf(loader.get()));
+    }
+
+    public void evict() {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+}
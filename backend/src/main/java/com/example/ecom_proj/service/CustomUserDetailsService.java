@@ -17,9 +17,11 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     /**
@@ -31,12 +33,15 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 1. Find the user in OUR database
+        // 1. Find the user in OUR database. Always the row itself, never the user cache: a password
+        //    change or delete on another instance must take effect here at once. Logins are already
+        //    bounded by the hashing pool, so this query is not on a hot path.
         Users user = userRepository.findByUsername(username);
         
         if (user == null) {
             throw new UsernameNotFoundException("User not found: " + username);
         }
+        userCache.refresh(user); // the login response and token read the same fresh row
         
         // 2. Convert OUR Users model to Spring Security's UserDetails
         return User.builder()
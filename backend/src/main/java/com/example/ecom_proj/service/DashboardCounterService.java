@@ -0,0 +1,117 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.AssetRepository;
+import com.example.ecom_proj.repository.AssetTransactionRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory asset / user / transaction totals for the dashboard.
+ *
+ * NOTE: The create and delete paths report their deltas here once their transaction commits, so the
+ * dashboard reads three longs instead of running three COUNT(*) scans per request. Writes that bypass
+ * those paths (SQL, other instances) are picked up by the periodic reconciliation against the real
+ * counts; the snapshot says when that last happened.
+ */
+@Service
+public class DashboardCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounterService.class);
+
+    private final AssetRepository assetRepo;
+    private final UserRepository userRepo;
+    private final AssetTransactionRepository txnRepo;
+
+    private final AtomicLong assets = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private volatile Instant reconciledAt;
+
+    public DashboardCounterService(AssetRepository assetRepo, UserRepository userRepo, AssetTransactionRepository txnRepo) {
+        this.assetRepo = assetRepo;
+        this.userRepo = userRepo;
+        this.txnRepo = txnRepo;
+    }
+
+    public void assetsChanged(long delta) {
+        apply(assets, delta);
+    }
+
+    public void usersChanged(long delta) {
+        apply(users, delta);
+    }
+
+    public void transactionsChanged(long delta) {
+        apply(transactions, delta);
+    }
+
+    /**
+     * Replace the counters with the real table counts. Runs at startup and every
+     * dashboard.counters.reconcile-interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-interval:PT5M}",
+            fixedDelayString = "${dashboard.counters.reconcile-interval:PT5M}")
+    public void reconcile() {
+        try {
+            long a = assetRepo.count();
+            long u = userRepo.count();
+            long t = txnRepo.count();
+            long driftA = a - assets.getAndSet(a);
+            long driftU = u - users.getAndSet(u);
+            long driftT = t - transactions.getAndSet(t);
+            if (reconciledAt != null && (driftA != 0 || driftU != 0 || driftT != 0)) {
+                log.info("Dashboard counters reconciled with drift: assets={}, users={}, transactions={}",
+                        driftA, driftU, driftT);
+            }
+            reconciledAt = Instant.now();
+        } catch (Exception e) {
+            log.error("Failed to reconcile dashboard counters", e);
+        }
+    }
+
+    /**
+     * Current totals plus when they were last checked against the database.
+     */
+    public Map<String, Object> snapshot() {
+        Instant at = reconciledAt;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalAssets", assets.get());
+        stats.put("totalUsers", users.get());
+        stats.put("totalTransactions", transactions.get());
+        stats.put("countersReconciledAt", at);
+        stats.put("countersStalenessSeconds", at == null ? null : Duration.between(at, Instant.now()).toSeconds());
+        return stats;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private static void apply(AtomicLong counter, long delta) {
+        if (delta == 0) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rolled-back work must not move the counters
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.addAndGet(delta);
+                }
+            });
+        } else {
+            counter.addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.ecom_proj.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Entry point for pushing events to connected clients; delivery happens after the caller's commit.
+ *
+ * NOTE: With sse.pg-notify.enabled, events are sent with pg_notify on one channel and every instance
+ * (this one included) delivers what it receives on LISTEN to its own connections, so a client gets
+ * events whichever node it is connected to. The listener keeps one pooled connection for itself.
+ * PostgreSQL caps a NOTIFY payload at 8000 bytes; a larger event is only delivered locally.
+ * Without the flag, events go straight to this instance's connections.
+ */
+@Component
+public class EventStreamPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStreamPublisher.class);
+
+    static final String CHANNEL = "app_events";
+    private static final int MAX_NOTIFY_BYTES = 7900;
+
+    /**
+     * An event and who gets it: the listed users, or every ADMIN/STAFF connection when staff is set.
+     */
+    record Envelope(boolean staff, List<Long> userIds, String event, Object data) {}
+
+    private record ReceivedEnvelope(boolean staff, List<Long> userIds, String event, JsonNode data) {}
+
+    private final EventStreamService streams;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final boolean pgNotify;
+
+    private volatile boolean listening;
+    private Thread listener;
+
+    public EventStreamPublisher(EventStreamService streams,
+                                JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                @Value("${sse.pg-notify.enabled:false}") boolean pgNotify) {
+        this.streams = streams;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.pgNotify = pgNotify;
+    }
+
+    public void toUsers(Collection<Long> userIds, String event, Object data) {
+        if (userIds.isEmpty()) return;
+        afterCommit(new Envelope(false, List.copyOf(userIds), event, data));
+    }
+
+    /**
+     * To every ADMIN and STAFF connection (borrow-request queue changes).
+     */
+    public void toStaff(String event, Object data) {
+        afterCommit(new Envelope(true, List.of(), event, data));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!pgNotify) return;
+        listening = true;
+        listener = new Thread(this::listen, "sse-pg-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        listening = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void afterCommit(Envelope envelope) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rolled-back changes are never announced
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(envelope);
+                }
+            });
+        } else {
+            publish(envelope);
+        }
+    }
+
+    void publish(Envelope envelope) {
+        if (!pgNotify) {
+            deliver(envelope.staff(), envelope.userIds(), envelope.event(), envelope.data());
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(envelope);
+            if (json.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+                log.warn("Event '{}' too large for NOTIFY, delivered on this instance only", envelope.event());
+                deliver(envelope.staff(), envelope.userIds(), envelope.event(), envelope.data());
+                return;
+            }
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, json);
+        } catch (Exception e) {
+            log.error("Failed to publish event '{}' through NOTIFY, delivering locally", envelope.event(), e);
+            deliver(envelope.staff(), envelope.userIds(), envelope.event(), envelope.data());
+        }
+    }
+
+    private void deliver(boolean staff, List<Long> userIds, String event, Object data) {
+        if (staff) {
+            streams.sendToStaff(event, data);
+        } else {
+            streams.sendToUsers(userIds, event, data);
+        }
+    }
+
+    void received(String payload) {
+        try {
+            ReceivedEnvelope envelope = objectMapper.readValue(payload, ReceivedEnvelope.class);
+            deliver(envelope.staff(), envelope.userIds(), envelope.event(), envelope.data());
+        } catch (Exception e) {
+            log.warn("Ignoring malformed event notification", e);
+        }
+    }
+
+    private void listen() {
+        while (listening) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                log.info("Listening for events on channel '{}'", CHANNEL);
+                while (listening) {
+                    PGNotification[] notifications = pg.getNotifications(10_000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            received(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!listening) return;
+                log.error("Event listener connection failed, reconnecting", e);
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+}
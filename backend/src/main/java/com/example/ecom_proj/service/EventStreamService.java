@@ -0,0 +1,269 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.security.JwtPrincipal;
+import com.example.ecom_proj.security.JwtTokenDetails;
+import com.example.ecom_proj.security.TokenDenylist;
+import com.example.ecom_proj.security.TokenRevocationService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongFunction;
+
+/**
+ * Open server-sent-event connections (GET /events/stream) and delivery to them.
+ *
+ * NOTE:
+ *  - Publishers never write to a socket. Each connection has a bounded buffer (sse.buffer-size), and a
+ *    small shared writer pool drains the buffers. A slow client cannot hold up a commit or other
+ *    clients; one whose buffer overflows is disconnected and reconnects (EventSource does so on its own).
+ *  - One scheduled heartbeat covers every connection, instead of a timer per connection. It also re-checks
+ *    the token each stream was opened with: once it has expired, been logged out (TokenDenylist) or
+ *    voided by a role change or delete (TokenRevocationService), the stream is closed. The client then
+ *    reconnects with its current token and role, or fails to. Revocations on other instances arrive
+ *    with their sync, so a stream outlives its token by at most that plus one heartbeat.
+ *  - Events reach a user's own connections, or every ADMIN/STAFF connection for the borrow-request queue.
+ *    Delivery across instances goes through EventStreamPublisher.
+ */
+@Service
+public class EventStreamService {
+
+    /**
+     * What is queued per connection; turned into an SSE frame only when written.
+     */
+    record Event(String name, Object data) {
+        static final Event HEARTBEAT = new Event(null, null);
+    }
+
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final LongFunction<SseEmitter> emitterFactory;
+    // Whether the token a stream was opened with is still good
+    private final BiPredicate<JwtPrincipal, JwtTokenDetails> tokenValid;
+
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final Set<Subscriber> staff = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor writers;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder revoked = new LongAdder();
+
+    @Autowired
+    public EventStreamService(@Value("${sse.timeout:PT30M}") Duration timeout,
+                              @Value("${sse.buffer-size:64}") int bufferSize,
+                              @Value("${sse.writer-threads:4}") int writerThreads,
+                              @Value("${sse.max-connections-per-user:5}") int maxConnectionsPerUser,
+                              TokenDenylist denylist,
+                              TokenRevocationService revocationService) {
+        this(timeout, bufferSize, writerThreads, maxConnectionsPerUser, SseEmitter::new,
+                (user, token) -> token.expiresAt().isAfter(Instant.now())
+                        && !denylist.isRevoked(token.jti())
+                        && !revocationService.isRevoked(user.username(), token.issuedAt()));
+    }
+
+    EventStreamService(Duration timeout, int bufferSize, int writerThreads, int maxConnectionsPerUser,
+                       LongFunction<SseEmitter> emitterFactory,
+                       BiPredicate<JwtPrincipal, JwtTokenDetails> tokenValid) {
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.emitterFactory = emitterFactory;
+        this.tokenValid = tokenValid;
+        AtomicInteger count = new AtomicInteger();
+        // At most one drain task per connection is queued, so the queue is bounded by the connection count
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "sse-writer-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Open a stream for the user, for as long as the token it was opened with stays valid.
+     *
+     * @param token the request's JWT, or null for other authentications (never re-checked)
+     * @throws TooManyRequestsException if the user already has sse.max-connections-per-user streams open
+     */
+    public SseEmitter subscribe(JwtPrincipal user, JwtTokenDetails token) {
+        SseEmitter emitter = emitterFactory.apply(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(user, token, emitter, bufferSize);
+        byUser.compute(user.id(), (id, own) -> {
+            if (own == null) {
+                own = ConcurrentHashMap.newKeySet();
+            } else if (own.size() >= maxConnectionsPerUser) {
+                throw new TooManyRequestsException("Too many open event streams for this user", 5);
+            }
+            own.add(subscriber);
+            return own;
+        });
+        if (user.role() == Users.Role.ADMIN || user.role() == Users.Role.STAFF) {
+            staff.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        offer(subscriber, new Event("ready", Map.of("userId", user.id())));
+        return emitter;
+    }
+
+    public void sendToUsers(Collection<Long> userIds, String name, Object data) {
+        Event event = new Event(name, data);
+        for (Long userId : userIds) {
+            Set<Subscriber> subscribers = byUser.get(userId);
+            if (subscribers != null) {
+                subscribers.forEach(s -> offer(s, event));
+            }
+        }
+    }
+
+    /**
+     * To every ADMIN and STAFF connection (the borrow-request queue).
+     */
+    public void sendToStaff(String name, Object data) {
+        Event event = new Event(name, data);
+        staff.forEach(s -> offer(s, event));
+    }
+
+    @Scheduled(initialDelayString = "${sse.heartbeat-interval:PT25S}", fixedDelayString = "${sse.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        byUser.values().forEach(subscribers -> subscribers.forEach(s -> {
+            if (s.token != null && !tokenValid.test(s.user, s.token)) {
+                revoked.increment();
+                close(s);
+            } else {
+                offer(s, Event.HEARTBEAT);
+            }
+        }));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", byUser.values().stream().mapToInt(Set::size).sum());
+        stats.put("users", byUser.size());
+        stats.put("staffConnections", staff.size());
+        stats.put("sent", sent.sum());
+        stats.put("disconnectedSlowClients", overflowed.sum());
+        stats.put("disconnectedRevoked", revoked.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byUser.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        writers.shutdownNow();
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.closed) return;
+        if (!subscriber.buffer.offer(event)) {
+            overflowed.increment();
+            close(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                close(subscriber); // shutting down
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while ((event = subscriber.buffer.poll()) != null && !subscriber.closed) {
+                subscriber.emitter.send(frame(event));
+                sent.increment();
+            }
+        } catch (Exception e) {
+            close(subscriber); // client went away
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder frame(Event event) {
+        if (event == Event.HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed) return;
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignore) {
+            // already completed by the container
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        staff.remove(subscriber);
+        byUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static final class Subscriber {
+        final Long userId;
+        final JwtPrincipal user;
+        final JwtTokenDetails token;
+        final SseEmitter emitter;
+        final BlockingQueue<Event> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(JwtPrincipal user, JwtTokenDetails token, SseEmitter emitter, int bufferSize) {
+            this.userId = user.id();
+            this.user = user;
+            this.token = token;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.UnsupportedExportFormatException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the response as NDJSON or CSV in constant memory.
+ *
+ * NOTE: Rows come from a repository Stream (a server-side cursor inside a read-only transaction)
+ * and are handled in chunks: each chunk is detached from the persistence context, enriched,
+ * written and flushed before the next one is read, so heap use does not grow with the table.
+ */
+@Service
+public class ExportService {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    static final int CHUNK_SIZE = 500;
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) return format;
+            }
+            throw new UnsupportedExportFormatException(value);
+        }
+    }
+
+    /**
+     * CSV columns: header → value extractor, in output order.
+     */
+    public static final class Columns<T> {
+        private final Map<String, Function<T, ?>> columns = new LinkedHashMap<>();
+
+        public Columns<T> add(String header, Function<T, ?> extractor) {
+            columns.put(header, extractor);
+            return this;
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExportService(EntityManager entityManager, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Wrap an export body with its content type; CSV is sent as a download named after the table.
+     */
+    public static ResponseEntity<StreamingResponseBody> response(Format format, String name, StreamingResponseBody body) {
+        if (format == Format.CSV) {
+            return ResponseEntity.ok()
+                    .contentType(CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(name + ".csv").build().toString())
+                    .body(body);
+        }
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * @param source  opens the repository stream; called inside the export transaction
+     * @param format  NDJSON (the entity's usual JSON, one object per line) or CSV
+     * @param columns CSV columns (ignored for NDJSON)
+     * @param enrich  applied to each detached chunk before it is written (may be null)
+     */
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> source, Format format, Columns<T> columns, Consumer<List<T>> enrich) {
+        return out -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, new ArrayList<>(columns.columns.keySet()));
+                }
+
+                List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+                Iterator<T> it = rows.iterator();
+                while (it.hasNext()) {
+                    chunk.add(it.next());
+                    if (chunk.size() == CHUNK_SIZE || !it.hasNext()) {
+                        // Detach before enriching so nothing we touch can be flushed back
+                        entityManager.clear();
+                        if (enrich != null) {
+                            enrich.accept(chunk);
+                        }
+                        writeChunk(writer, chunk, format, columns);
+                        chunk.clear();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private <T> void writeChunk(Writer writer, List<T> chunk, Format format, Columns<T> columns) throws IOException {
+        for (T row : chunk) {
+            if (format == Format.CSV) {
+                List<Object> values = new ArrayList<>(columns.columns.size());
+                for (Function<T, ?> extractor : columns.columns.values()) {
+                    values.add(extractor.apply(row));
+                }
+                writeCsvRow(writer, values);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvField(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a comma, quote or line break are quoted, quotes doubled.
+     */
+    static String csvField(Object value) {
+        if (value == null) return "";
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Notification;
+import com.example.ecom_proj.model.OutboxEvent;
+import com.example.ecom_proj.repository.NotificationRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the notification rows for "notification" outbox events: every event of a round in one
+ * transaction and one saveAll (a single JDBC batch), recipients referenced by id only.
+ */
+@Component
+public class NotificationOutboxHandler implements OutboxHandler {
+
+    public static final String TYPE = "notification";
+
+    public record Payload(List<Long> recipientIds, String message) {}
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final EventStreamPublisher eventPublisher;
+
+    public NotificationOutboxHandler(NotificationRepository notificationRepository, UserRepository userRepository,
+                                     ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                     UnreadNotificationCounter unreadCounter, EventStreamPublisher eventPublisher) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounter = unreadCounter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) throws Exception {
+        List<Payload> payloads = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            payloads.add(objectMapper.readValue(event.getPayload(), Payload.class));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Notification> notifications = new ArrayList<>();
+            for (Payload payload : payloads) {
+                for (Long recipientId : payload.recipientIds()) {
+                    Notification n = new Notification();
+                    n.setRecipient(userRepository.getReferenceById(recipientId));
+                    n.setMessage(payload.message());
+                    n.setRead(false);
+                    notifications.add(n);
+                }
+            }
+            notificationRepository.saveAll(notifications);
+            unreadCounter.changed(NotificationService.countByRecipient(notifications));
+            NotificationService.announce(eventPublisher, notifications);
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes read notifications older than notifications.retention.read-after, so the table only holds
+ * what inboxes still show. Unread notifications are never touched.
+ *
+ * NOTE: Rows go in chunks of notifications.retention.chunk-size, each chunk its own short transaction,
+ * so a large backlog never holds long locks or one huge transaction. A run stops after max-chunks-per-run
+ * and the next run carries on. With mode=ARCHIVE, rows are moved into notifications_archive (schema.sql)
+ * instead of deleted. Read rows don't count as unread, so UnreadNotificationCounter is unaffected.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    public enum Mode { DELETE, ARCHIVE }
+
+    private final NotificationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Mode mode;
+    private final Duration readAfter;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private final AtomicLong removed = new AtomicLong();
+    private volatile Instant lastRunAt;
+
+    public NotificationRetentionService(NotificationRepository repository,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${notifications.retention.enabled:true}") boolean enabled,
+                                        @Value("${notifications.retention.mode:DELETE}") Mode mode,
+                                        @Value("${notifications.retention.read-after:P90D}") Duration readAfter,
+                                        @Value("${notifications.retention.chunk-size:1000}") int chunkSize,
+                                        @Value("${notifications.retention.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.mode = mode;
+        this.readAfter = readAfter;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${notifications.retention.interval:PT1H}",
+            fixedDelayString = "${notifications.retention.interval:PT1H}")
+    public void run() {
+        if (!enabled) return;
+        try {
+            long count = purge(LocalDateTime.now().minus(readAfter));
+            if (count > 0) {
+                log.info("Notification retention: {} {} read notifications", mode == Mode.ARCHIVE ? "archived" : "deleted", count);
+            }
+        } catch (Exception e) {
+            log.error("Notification retention run failed", e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("mode", mode);
+        stats.put("readAfterDays", readAfter.toDays());
+        stats.put("removed", removed.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    long purge(LocalDateTime cutoff) {
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer n = transactionTemplate.execute(status -> mode == Mode.ARCHIVE
+                    ? repository.archiveReadBefore(cutoff, chunkSize)
+                    : repository.deleteReadBefore(cutoff, chunkSize));
+            int count = n == null ? 0 : n;
+            total += count;
+            if (count < chunkSize) break; // caught up
+        }
+        removed.addAndGet(total);
+        lastRunAt = Instant.now();
+        return total;
+    }
+}
@@ -1,24 +1,50 @@
 package com.example.ecom_proj.service;
 
+import com.example.ecom_proj.dto.PageCursor;
+import com.example.ecom_proj.exceptions.InvalidCursorException;
 import com.example.ecom_proj.model.Notification;
 import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.KeysetPagination;
 import com.example.ecom_proj.repository.NotificationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Minimal notification service. Stores notification rows in DB.
+ *
+ * NOTE: Notifications caused by a business change ({@link #notifyAfterCommit}) go through the outbox:
+ * the request only writes an outbox row, and NotificationOutboxHandler inserts the notifications
+ * once the change has committed.
+ * NOTE: Every write keeps UnreadNotificationCounter in step, so unread counts never scan the table,
+ * and pushes the new rows to the recipients' open event streams once committed.
  */
 @Service
 public class NotificationService {
 
     private final NotificationRepository repo;
     private final UserService userService; // reuse existing user service for lookups if needed
+    private final OutboxService outboxService;
+    private final UnreadNotificationCounter unreadCounter;
+    private final EventStreamPublisher events;
 
-    public NotificationService(NotificationRepository repo, UserService userService) {
+    public NotificationService(NotificationRepository repo, UserService userService, OutboxService outboxService,
+                               UnreadNotificationCounter unreadCounter, EventStreamPublisher events) {
         this.repo = repo;
         this.userService = userService;
+        this.outboxService = outboxService;
+        this.unreadCounter = unreadCounter;
+        this.events = events;
     }
 
     /**
@@ -29,7 +55,39 @@ public class NotificationService {
         n.setRecipient(recipient);
         n.setMessage(message);
         n.setRead(false);
-        return repo.save(n);
+        Notification saved = repo.save(n);
+        unreadCounter.changed(recipient.getId(), 1);
+        announce(events, List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Same message to many recipients (e.g. all admins), written with one saveAll so Hibernate
+     * can send the inserts as a single JDBC batch.
+     */
+    @Transactional
+    public List<Notification> createNotifications(Collection<Users> recipients, String message) {
+        List<Notification> notifications = recipients.stream().map(recipient -> {
+            Notification n = new Notification();
+            n.setRecipient(recipient);
+            n.setMessage(message);
+            n.setRead(false);
+            return n;
+        }).toList();
+        List<Notification> saved = repo.saveAll(notifications);
+        unreadCounter.changed(countByRecipient(saved));
+        announce(events, saved);
+        return saved;
+    }
+
+    /**
+     * Same message to users by id, recorded in the caller's transaction and delivered after it commits.
+     * Recipients are referenced by id only, never loaded.
+     */
+    public void notifyAfterCommit(Collection<Long> recipientIds, String message) {
+        if (recipientIds.isEmpty()) return;
+        outboxService.enqueue(NotificationOutboxHandler.TYPE,
+                new NotificationOutboxHandler.Payload(List.copyOf(recipientIds), message));
     }
 
     /**
@@ -40,14 +98,85 @@ public class NotificationService {
         return createNotification(u, message);
     }
 
-    public List<Notification> getNotificationsForUser(Users recipient) {
-        return repo.findByRecipientOrderByCreatedAtDesc(recipient);
+    /**
+     * One page of a user's inbox, newest first. Keyset pages on (createdAt, id): pass the previous
+     * page's next cursor to continue; no count query is run.
+     */
+    public Slice<Notification> getInbox(Long recipientId, boolean unreadOnly, int size, String cursor) {
+        Specification<Notification> spec = (root, query, cb) -> cb.equal(root.get("recipient").get("id"), recipientId);
+        if (unreadOnly) {
+            spec = spec.and((root, query, cb) -> cb.isFalse(root.get("read")));
+        }
+        PageRequest pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return KeysetPagination.fetch(repo, spec, pageable, cursor, false);
+    }
+
+    public long unreadCount(Long recipientId) {
+        return unreadCounter.get(recipientId);
+    }
+
+    /**
+     * Mark one of the user's notifications read. Someone else's id, or one already read, changes nothing.
+     * NOTE: One conditional UPDATE, so concurrent clicks on the same notification decrement the count once.
+     */
+    @Transactional
+    public void markAsRead(Long recipientId, Long notificationId) {
+        int updated = repo.markReadByIds(recipientId, List.of(notificationId));
+        if (updated > 0) {
+            unreadCounter.changed(recipientId, -updated);
+        }
+    }
+
+    /**
+     * Mark many of the user's notifications read with one UPDATE: the given ids, else the row a
+     * cursor points at and everything older, else every unread one. Other users' ids are ignored.
+     *
+     * @param upTo an inbox cursor (newest-first order)
+     * @return how many notifications went from unread to read
+     */
+    @Transactional
+    public int markAllAsRead(Long recipientId, Collection<Long> ids, String upTo) {
+        int updated;
+        if (ids != null && !ids.isEmpty()) {
+            updated = repo.markReadByIds(recipientId, ids);
+        } else if (upTo != null && !upTo.isBlank()) {
+            PageCursor cursor = PageCursor.decode(upTo);
+            updated = repo.markReadUpTo(recipientId, inboxPosition(cursor), cursor.getId());
+        } else {
+            updated = repo.markAllRead(recipientId);
+        }
+        // Only rows that were unread match, so the row count is the exact change
+        unreadCounter.changed(recipientId, -updated);
+        return updated;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    /**
+     * The createdAt an inbox cursor (createdAt DESC, see getInbox) points at.
+     */
+    private static LocalDateTime inboxPosition(PageCursor cursor) {
+        if (!"createdAt".equals(cursor.getSortKey()) || cursor.getDirection() != Sort.Direction.DESC
+                || cursor.getValue() == null) {
+            throw new InvalidCursorException("Cursor is not an inbox cursor");
+        }
+        try {
+            return LocalDateTime.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
     }
 
-    public void markAsRead(Long notificationId) {
-        repo.findById(notificationId).ifPresent(n -> {
-            n.setRead(true);
-            repo.save(n);
-        });
+    static Map<Long, Long> countByRecipient(Collection<Notification> notifications) {
+        return notifications.stream()
+                .collect(Collectors.groupingBy(n -> n.getRecipient().getId(), Collectors.counting()));
+    }
+
+    /**
+     * Push each new notification to its recipient's event streams after commit.
+     */
+    static void announce(EventStreamPublisher events, Collection<Notification> notifications) {
+        notifications.forEach(n -> events.toUsers(List.of(n.getRecipient().getId()), "notification", n));
     }
 }
@@ -0,0 +1,252 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.OutboxEvent;
+import com.example.ecom_proj.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to their {@link OutboxHandler}s, at least once.
+ *
+ * NOTE:
+ *  - Runs when OutboxService reports a commit, and every outbox.poll-interval as a fallback (after a
+ *    restart, for retries, for events written by other instances). Rounds always run on the
+ *    dispatcher's own thread; the poll only wakes it, so a long drain never holds up the other
+ *    scheduled jobs.
+ *  - Each round claims up to outbox.batch-size due rows with FOR UPDATE SKIP LOCKED and pushes their
+ *    next attempt outbox.lease ahead, so several instances can dispatch side by side. If this one
+ *    dies mid-delivery, the events come due again when the lease runs out.
+ *  - The batch is grouped by type and each group is handed to its handler on a bounded worker pool
+ *    (outbox.dispatch.threads). If a group fails, its events are delivered again one at a time, so a
+ *    single bad event only fails itself. Delivered events are deleted; failed ones are retried with
+ *    exponential backoff, and kept once they reach outbox.max-attempts.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository repository;
+    private final Map<String, OutboxHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final ThreadPoolExecutor workers;
+    // Runs drain() on demand; one queued wake-up is enough, further ones are dropped
+    private final ThreadPoolExecutor waker;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public OutboxDispatcher(OutboxEventRepository repository,
+                            List<OutboxHandler> handlers,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${outbox.dispatch.threads:4}") int threads,
+                            @Value("${outbox.batch-size:100}") int batchSize,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.lease:PT1M}") Duration lease,
+                            @Value("${outbox.retry.initial-backoff:PT1S}") Duration initialBackoff,
+                            @Value("${outbox.retry.max-backoff:PT10M}") Duration maxBackoff) {
+        this.repository = repository;
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::type, Function.identity()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(threads, 16)),
+                r -> daemon(r, "outbox-worker-" + count.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.waker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                r -> daemon(r, "outbox-dispatcher"),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Deliver due events soon, without waiting for the next poll.
+     */
+    public void wakeUp() {
+        wakeRequested.set(true);
+        waker.execute(this::drain);
+    }
+
+    @Scheduled(initialDelayString = "${outbox.poll-interval:PT1S}", fixedDelayString = "${outbox.poll-interval:PT1S}")
+    public void poll() {
+        wakeUp();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", repository.count());
+        stats.put("dead", repository.countByAttemptsGreaterThanEqual(maxAttempts));
+        stats.put("delivered", delivered.sum());
+        stats.put("failed", failed.sum());
+        stats.put("handlers", handlers.keySet());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waker.shutdownNow();
+        workers.shutdown();
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return; // the running round re-checks wakeRequested before it stops
+        }
+        try {
+            int claimed;
+            do {
+                wakeRequested.set(false);
+                claimed = dispatchBatch(Instant.now());
+            } while (claimed == batchSize || wakeRequested.get());
+        } catch (Exception e) {
+            log.error("Outbox dispatch failed", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * One round: claim, deliver, then delete or reschedule. Returns the number of events claimed.
+     */
+    int dispatchBatch(Instant now) {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = repository.lockDue(now, maxAttempts, batchSize);
+            due.forEach(event -> {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plus(lease));
+            });
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxEvent>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getType, LinkedHashMap::new, Collectors.toList()));
+        Map<String, Future<?>> deliveries = new LinkedHashMap<>();
+        byType.forEach((type, events) -> {
+            OutboxHandler handler = handlers.get(type);
+            if (handler != null) {
+                deliveries.put(type, deliver(handler, events));
+            }
+        });
+
+        List<Long> done = new ArrayList<>();
+        Map<OutboxEvent, String> errors = new LinkedHashMap<>();
+        Map<OutboxEvent, Future<?>> singles = new LinkedHashMap<>();
+        long deadline = System.nanoTime() + lease.toNanos();
+        byType.forEach((type, events) -> {
+            Future<?> delivery = deliveries.get(type);
+            String error = await(delivery, deadline, type);
+            if (error == null) {
+                events.forEach(event -> done.add(event.getId()));
+            } else if (events.size() > 1 && delivery != null && delivery.isDone() && !delivery.isCancelled()) {
+                // The handler threw: find the bad event(s) by delivering each on its own
+                OutboxHandler handler = handlers.get(type);
+                events.forEach(event -> singles.put(event, deliver(handler, List.of(event))));
+            } else {
+                events.forEach(event -> errors.put(event, error));
+            }
+        });
+        singles.forEach((event, delivery) -> {
+            String error = await(delivery, deadline, event.getType());
+            if (error == null) {
+                done.add(event.getId());
+            } else {
+                errors.put(event, error);
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                repository.deleteAllByIdInBatch(done);
+            }
+            errors.forEach((event, error) ->
+                    repository.reschedule(event.getId(), now.plus(backoff(event.getAttempts())), error));
+        });
+        delivered.add(done.size());
+        failed.add(errors.size());
+        return batch.size();
+    }
+
+    /**
+     * Delay before the next attempt: initial-backoff doubled per attempt made, capped at max-backoff.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private Future<?> deliver(OutboxHandler handler, List<OutboxEvent> events) {
+        return workers.submit(() -> {
+            handler.handle(events);
+            return null;
+        });
+    }
+
+    private static String await(Future<?> delivery, long deadline, String type) {
+        if (delivery == null) {
+            return "No handler for outbox event type '" + type + "'";
+        }
+        try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (TimeoutException e) {
+            delivery.cancel(true);
+            return "Delivery timed out";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted";
+        } catch (ExecutionException e) {
+            log.warn("Outbox delivery of '{}' events failed", type, e.getCause());
+            return String.valueOf(e.getCause());
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
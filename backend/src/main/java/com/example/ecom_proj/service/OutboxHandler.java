@@ -0,0 +1,22 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Delivers one type of outbox event. Implementations are picked up as beans by OutboxDispatcher.
+ *
+ * NOTE: Delivery is at-least-once: a handler may see an event again after a crash or timeout, and
+ * a failed call is retried event by event, so handlers should tolerate repeats and only commit a
+ * call's work all together (or not at all).
+ */
+public interface OutboxHandler {
+
+    String type();
+
+    /**
+     * Deliver a batch of due events of {@link #type()}, in insertion order; throw to have them retried.
+     */
+    void handle(List<OutboxEvent> events) throws Exception;
+}
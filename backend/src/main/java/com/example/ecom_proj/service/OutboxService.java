@@ -0,0 +1,70 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.OutboxEvent;
+import com.example.ecom_proj.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Records side effects as outbox rows in the caller's transaction.
+ *
+ * NOTE: The row commits or rolls back with the business change, so a side effect is never lost after
+ * a commit and never sent for a rolled-back change. Delivery happens in OutboxDispatcher, which is
+ * woken as soon as the transaction commits.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher dispatcher;
+
+    public OutboxService(OutboxEventRepository repository, ObjectMapper objectMapper, OutboxDispatcher dispatcher) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Write an event of the given type; the payload is stored as JSON for the type's OutboxHandler.
+     */
+    @Transactional
+    public OutboxEvent enqueue(String type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(Instant.now());
+        event.setAvailableAt(event.getCreatedAt());
+        OutboxEvent saved = repository.save(event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        } else {
+            dispatcher.wakeUp();
+        }
+        return saved;
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize outbox payload", e);
+        }
+    }
+}
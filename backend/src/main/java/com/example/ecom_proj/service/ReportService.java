@@ -1,5 +1,6 @@
 package com.example.ecom_proj.service;
 
+import com.example.ecom_proj.dto.CategoryStatusSummary;
 import com.example.ecom_proj.model.AssetTransaction;
 import com.example.ecom_proj.repository.AssetRepository;
 import com.example.ecom_proj.repository.AssetTransactionRepository;
@@ -8,9 +9,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class ReportService {
@@ -23,9 +24,23 @@ public class ReportService {
         this.txnRepo = txnRepo;
     }
 
+    /**
+     * Asset count per category name. Grouped in the database: one row per category comes back
+     * instead of every asset with its category.
+     */
     public Map<String, Long> getAssetSummary() {
-        return assetRepo.findAll().stream()
-                .collect(Collectors.groupingBy(a -> a.getCategory().getName(), Collectors.counting()));
+        Map<String, Long> summary = new HashMap<>();
+        for (Object[] row : assetRepo.countByCategoryName()) {
+            summary.put((String) row[0], (Long) row[1]);
+        }
+        return summary;
+    }
+
+    /**
+     * Asset count and total cost per category × status, ordered by category name then status.
+     */
+    public List<CategoryStatusSummary> getCategoryStatusBreakdown() {
+        return assetRepo.summarizeByCategoryAndStatus();
     }
 
     public List<AssetTransaction> getRecentTransactions() {
@@ -0,0 +1,80 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counts, so the navbar badge poll doesn't count rows.
+ *
+ * NOTE: A user's count is loaded with one indexed COUNT on first use. After that, every path that
+ * creates notifications or marks them read reports its delta here once its transaction commits.
+ * Users whose count isn't cached are skipped; their next read loads a fresh value. Entries expire after
+ * notifications.unread-cache.ttl, which bounds drift from writes made on other instances.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository repository;
+    private final Cache<Long, AtomicLong> counts;
+
+    public UnreadNotificationCounter(NotificationRepository repository,
+                                     @Value("${notifications.unread-cache.max-size:10000}") long maxSize,
+                                     @Value("${notifications.unread-cache.ttl:PT1M}") Duration ttl) {
+        this.repository = repository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long get(Long userId) {
+        return counts.get(userId, id -> new AtomicLong(repository.countByRecipientIdAndReadFalse(id))).get();
+    }
+
+    /**
+     * Apply per-user deltas after the current transaction commits (immediately without one).
+     */
+    public void changed(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rolled-back work must not move the counts
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+            });
+        } else {
+            apply(deltas);
+        }
+    }
+
+    public void changed(Long userId, long delta) {
+        changed(Map.of(userId, delta));
+    }
+
+    public void evict(Long userId) {
+        counts.invalidate(userId);
+    }
+
+    // -------------------------
+    // Helper functions
+    // -------------------------
+    private void apply(Map<Long, Long> deltas) {
+        deltas.forEach((userId, delta) -> {
+            AtomicLong count = counts.getIfPresent(userId);
+            if (count != null && count.addAndGet(delta) < 0) {
+                counts.invalidate(userId); // out of step; reload on next read
+            }
+        });
+    }
+}
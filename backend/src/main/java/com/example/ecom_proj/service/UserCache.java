@@ -0,0 +1,104 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded, TTL-limited cache of username → user snapshot, shared by login, UserDetails loading,
+ * /auth/me, the borrow-request endpoints and transaction logging.
+ *
+ * NOTE: UserService and AuthService call {@link #evict(String)} on every user write. As with
+ * AssetCache, entries are dropped immediately and again when the transaction completes. The TTL
+ * bounds staleness for writes made outside those paths. Unknown usernames are not cached.
+ * The ids of all users with a given role (admins, for notification fan-out) are cached alongside;
+ * any eviction drops them too, since a user write may have changed someone's role.
+ * NOTE: Evictions are local to this instance, so snapshots hold no credentials: login verifies the
+ * password against the row it reads itself (CustomUserDetailsService), never against a cached copy.
+ */
+@Component
+public class UserCache {
+
+    /**
+     * Immutable copy of the user row, without the password. Use {@link #toUser()} only for reads and
+     * id comparisons; associations to persist should use UserRepository.getReferenceById(id).
+     */
+    public record Snapshot(Long id, String username, Users.Role role) {
+
+        static Snapshot of(Users user) {
+            return new Snapshot(user.getId(), user.getUsername(), user.getRole());
+        }
+
+        /**
+         * Detached Users without the password.
+         */
+        public Users toUser() {
+            return new Users(id, username, null, role);
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, Snapshot> cache;
+    private final Cache<Users.Role, List<Long>> idsByRole;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${user.cache.max-size:10000}") long maxSize,
+                     @Value("${user.cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.idsByRole = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Cached snapshot, loading the user on a miss; null if there is no such user.
+     */
+    public Snapshot get(String username) {
+        if (username == null) return null;
+        return cache.get(username, name -> {
+            Users user = userRepository.findByUsername(name);
+            return user == null ? null : Snapshot.of(user);
+        });
+    }
+
+    /**
+     * Replace the snapshot with a row just read from the database (login reads it anyway).
+     */
+    public void refresh(Users user) {
+        cache.put(user.getUsername(), Snapshot.of(user));
+    }
+
+    /**
+     * Ids of every user with the role, from one id-only query on a miss.
+     */
+    public List<Long> idsByRole(Users.Role role) {
+        return idsByRole.get(role, r -> List.copyOf(userRepository.findIdsByRole(r)));
+    }
+
+    public void evict(String username) {
+        if (username == null) return;
+        cache.invalidate(username);
+        idsByRole.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                    idsByRole.invalidateAll();
+                }
+            });
+        }
+    }
+}
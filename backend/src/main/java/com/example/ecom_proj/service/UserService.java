@@ -8,14 +8,15 @@ import com.example.ecom_proj.exceptions.UserNotFoundException;
 import com.example.ecom_proj.model.Asset;
 import com.example.ecom_proj.model.Users;
 import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,15 +25,23 @@ import java.util.Optional;
 @Service
 public class UserService {
 
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHasher;
     private final UserRepository repository;
     private final AuditService auditService;
+    private final ExportService exportService;
+    private final DashboardCounterService counters;
+    private final TokenRevocationService revocationService;
+    private final UserCache userCache;
 
 
-    public UserService(BCryptPasswordEncoder passwordEncoder, UserRepository repository, AuditService auditService) {
-        this.passwordEncoder = passwordEncoder;
+    public UserService(PasswordHashingService passwordHasher, UserRepository repository, AuditService auditService, ExportService exportService, DashboardCounterService counters, TokenRevocationService revocationService, UserCache userCache) {
+        this.passwordHasher = passwordHasher;
         this.repository = repository;
         this.auditService = auditService;
+        this.exportService = exportService;
+        this.counters = counters;
+        this.revocationService = revocationService;
+        this.userCache = userCache;
     }
 
     //Utility
@@ -64,11 +73,13 @@ public class UserService {
         if (userExists(user.getUsername())) {
             throw new UserAlreadyExistsException(user.getUsername());
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         log.info("User {} created", user.getUsername());
 
 
         Users saved =  repository.save(user);
+        userCache.evict(saved.getUsername());
+        counters.usersChanged(1);
 
 
         auditService.log("CREATE",
@@ -97,6 +108,9 @@ public class UserService {
                 null
         );
         repository.delete(user);
+        counters.usersChanged(-1);
+        revocationService.revokeAll(user.getUsername());
+        userCache.evict(user.getUsername());
     }
 
     @Transactional
@@ -108,20 +122,26 @@ public class UserService {
         }
 
         // Update role
+        Users.Role previousRole = existing.getRole();
         existing.setRole(user.getRole());
 
         // Update password only if provided
         if (user.getPassword() != null && !user.getPassword().trim().isEmpty()) {
-            existing.setPassword(passwordEncoder.encode(user.getPassword()));
+            existing.setPassword(passwordHasher.encode(user.getPassword()));
         }
 
         Users updated = repository.save(existing);
+        if (previousRole != updated.getRole()) {
+            // Outstanding tokens carry the old role; voided once this update commits
+            revocationService.revokeAll(updated.getUsername());
+        }
+        userCache.evict(updated.getUsername());
 
         // Audit log
         auditService.log("UPDATE",
                 updated.getUsername(),
                 updated.getId(),
-                "User updated - Role: " + existing.getRole(),
+                "User updated - Role: " + previousRole,
                 "User updated - Role: " + updated.getRole()
         );
 
@@ -136,6 +156,18 @@ public class UserService {
         return users;
     }
 
+    /**
+     * Every user streamed from a database cursor, passwords removed.
+     */
+    public StreamingResponseBody exportUsers(ExportService.Format format) {
+        ExportService.Columns<Users> columns = new ExportService.Columns<Users>()
+                .add("id", Users::getId)
+                .add("username", Users::getUsername)
+                .add("role", Users::getRole);
+        return exportService.export(repository::streamAll, format, columns,
+                chunk -> chunk.forEach(user -> user.setPassword(null)));
+    }
+
     // ... existing code ...
 
     /**
@@ -0,0 +1,35 @@
+-- Applied once by SchemaMigrations (recorded in schema_migration); any error fails the startup.
+-- Written to be idempotent, so it can also be run by hand with psql before a ddl-auto=validate deploy.
+
+-- Pooled sequence ids (allocationSize = 50, see the @SequenceGenerator on each entity).
+-- Migration from the former IDENTITY columns: drop the identity default, then move each sequence past
+-- the highest existing id. GREATEST keeps a sequence from moving backwards if it is already ahead.
+CREATE SEQUENCE IF NOT EXISTS asset_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS asset_category_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS asset_transaction_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS audit_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS borrow_request_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+ALTER TABLE asset ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE asset_category ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE asset_transaction ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE audit ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE borrow_request ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('asset_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM asset) + 50, (SELECT last_value FROM asset_seq)));
+SELECT setval('asset_category_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM asset_category) + 50, (SELECT last_value FROM asset_category_seq)));
+SELECT setval('asset_transaction_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM asset_transaction) + 50, (SELECT last_value FROM asset_transaction_seq)));
+SELECT setval('audit_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM audit) + 50, (SELECT last_value FROM audit_seq)));
+SELECT setval('borrow_request_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM borrow_request) + 50, (SELECT last_value FROM borrow_request_seq)));
+SELECT setval('notifications_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notifications) + 50, (SELECT last_value FROM notifications_seq)));
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users) + 50, (SELECT last_value FROM users_seq)));
+
+-- Optimistic-lock version on asset (@Version). Hibernate adds the column with DEFAULT 0; this covers
+-- databases migrated under ddl-auto=validate and rows written before the default existed.
+ALTER TABLE asset ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+UPDATE asset SET version = 0 WHERE version IS NULL;
+ALTER TABLE asset ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,42 @@
+-- Supplementary DDL that Hibernate's ddl-auto cannot express.
+-- Runs after Hibernate (spring.jpa.defer-datasource-initialization=true); every statement is idempotent,
+-- and any error stops the startup. Statements use single-quoted DO bodies: Spring splits this file on ';'
+-- and does not understand $$ quoting.
+
+-- Trigram indexes for substring search (AssetSpecification: LOWER(col) LIKE '%term%').
+-- The indexed expressions match the generated predicates exactly, so the planner can use them.
+-- Creating the extension needs sufficient privileges (or the contrib package); only that step may fail:
+-- the app then starts without the indexes and searches fall back to scans.
+DO 'BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN insufficient_privilege OR undefined_file THEN
+    RAISE WARNING ''pg_trgm is not available (%), substring search will not be indexed'', SQLERRM;
+END';
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = ''pg_trgm'') THEN
+        CREATE INDEX IF NOT EXISTS idx_asset_name_trgm ON asset USING gin (lower(name) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_asset_serial_number_trgm ON asset USING gin (lower(serial_number) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_asset_category_name_trgm ON asset_category USING gin (lower(name) gin_trgm_ops);
+    END IF;
+END';
+
+-- Category lookups (search, category_id IN (...)) and the per category × status report: the INCLUDE
+-- column lets COUNT/SUM(cost) GROUP BY category_id, status run as an index-only scan.
+DROP INDEX IF EXISTS idx_asset_category_id;
+CREATE INDEX IF NOT EXISTS idx_asset_category_status ON asset (category_id, status) INCLUDE (cost);
+
+-- One-time migrations (identity columns → pooled sequences, asset.version backfill) are versioned
+-- scripts in db/migration, applied once by SchemaMigrations.
+
+-- Notification retention (NotificationRetentionService): read rows older than the cutoff are deleted, or
+-- moved here with notifications.retention.mode=ARCHIVE. The partial index serves the per-chunk
+-- "read and older than" scan without covering unread rows.
+CREATE INDEX IF NOT EXISTS idx_notifications_read_created ON notifications (created_at) WHERE is_read;
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id bigint PRIMARY KEY,
+    recipient_id bigint NOT NULL,
+    message text NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    archived_at timestamp(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_recipient ON notifications_archive (recipient_id, created_at);
@@ -0,0 +1,72 @@
+package com.example.ecom_proj.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SchemaMigrationsTest {
+
+	@Test
+	void migrationsAreOrderedByVersionNotByName() {
+		List<SchemaMigrations.Migration> migrations = SchemaMigrations.find(new Resource[] {
+				script("V10__later.sql"), script("V2__add_index.sql"), script("V1__first.sql")});
+
+		assertThat(migrations).extracting(SchemaMigrations.Migration::version).containsExactly(1, 2, 10);
+		assertThat(migrations.get(1).description()).isEqualTo("add index");
+	}
+
+	@Test
+	void duplicateVersionsAreRejected() {
+		assertThatThrownBy(() -> SchemaMigrations.find(new Resource[] {script("V1__a.sql"), script("V1__b.sql")}))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("V1");
+	}
+
+	@Test
+	void shippedMigrationsAreFound() throws Exception {
+		Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+
+		assertThat(SchemaMigrations.find(scripts)).extracting(SchemaMigrations.Migration::version).startsWith(1);
+	}
+
+	@Test
+	void runOnceSkipsWorkAlreadyRecorded() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("backfill"))).thenReturn(0, 1);
+		SchemaMigrations migrations = new SchemaMigrations(jdbcTemplate, transactionManager, mock(EntityManagerFactory.class));
+		AtomicInteger runs = new AtomicInteger();
+
+		assertThat(migrations.runOnce("backfill", "a backfill", runs::incrementAndGet)).isTrue();
+		assertThat(migrations.runOnce("backfill", "a backfill", runs::incrementAndGet)).isFalse();
+
+		assertThat(runs.get()).isEqualTo(1);
+		verify(jdbcTemplate, times(1)).update(anyString(), eq("backfill"), eq("a backfill"));
+	}
+
+	// -------------------------
+	// Helpers
+	// -------------------------
+	private static Resource script(String fileName) {
+		return new ByteArrayResource(new byte[0]) {
+			@Override
+			public String getFilename() {
+				return fileName;
+			}
+		};
+	}
+}
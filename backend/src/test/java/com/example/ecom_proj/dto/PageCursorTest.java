@@ -0,0 +1,52 @@
+package com.example.ecom_proj.dto;
+
+import com.example.ecom_proj.exceptions.InvalidCursorException;
+import com.example.ecom_proj.model.Audit;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+	@Test
+	void nextCursorPointsAtLastRowOfSlice() {
+		LocalDateTime at = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000);
+		List<Audit> rows = List.of(
+				Audit.builder().id(9L).performedAt(at.plusMinutes(1)).build(),
+				Audit.builder().id(7L).performedAt(at).build());
+		Sort sort = Sort.by(Sort.Direction.DESC, "performedAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+		String encoded = PageCursor.next(new SliceImpl<>(rows, PageRequest.of(0, 2, sort), true));
+		PageCursor cursor = PageCursor.decode(encoded);
+
+		assertThat(cursor.getSortKey()).isEqualTo("performedAt");
+		assertThat(cursor.getDirection()).isEqualTo(Sort.Direction.DESC);
+		assertThat(cursor.getId()).isEqualTo(7L);
+		assertThat(LocalDateTime.parse(cursor.getValue())).isEqualTo(at);
+	}
+
+	@Test
+	void noCursorOnLastSlice() {
+		List<Audit> rows = List.of(Audit.builder().id(1L).build());
+		assertThat(PageCursor.next(new SliceImpl<>(rows, PageRequest.of(0, 10), false))).isNull();
+	}
+
+	@Test
+	void nullSortValueSurvivesRoundTrip() {
+		PageCursor cursor = new PageCursor("performedBy", Sort.Direction.ASC, null, 42L);
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void rejectsGarbage() {
+		assertThatThrownBy(() -> PageCursor.decode("not a cursor!"))
+				.isInstanceOf(InvalidCursorException.class);
+	}
+}
@@ -0,0 +1,230 @@
+package com.example.ecom_proj.repository;
+
+import com.example.ecom_proj.dto.PageCursor;
+import com.example.ecom_proj.exceptions.InvalidCursorException;
+import com.example.ecom_proj.model.Audit;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * The seek predicate is evaluated in memory against rows sorted the way PostgreSQL sorts them
+ * (NULLS LAST for ASC, NULLS FIRST for DESC, id as tie-breaker): from every row's cursor, exactly the
+ * rows after it must match.
+ */
+class KeysetPaginationTest {
+
+	private static final Map<String, Class<?>> TYPES = Map.of(
+			"id", Long.class, "name", String.class, "quantity", Integer.class, "performedAt", LocalDateTime.class);
+
+	private static final LocalDateTime T = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 250_000_000);
+
+	private static final List<Map<String, Object>> ROWS = List.of(
+			row(1L, "b", 5, T),
+			row(2L, null, 3, null),
+			row(3L, "a", 5, T.plusSeconds(1)),
+			row(4L, "b", null, T),
+			row(5L, null, 3, T.minusDays(1)),
+			row(6L, "c", 10, null),
+			row(7L, "b", 5, T.plusNanos(1_000)));
+
+	@Test
+	void ascendingSeekResumesRightAfterEveryRowIncludingTheNullGroup() {
+		for (String key : List.of("name", "quantity", "performedAt", "id")) {
+			assertSeeksMatchOrder(key, Sort.Direction.ASC);
+		}
+	}
+
+	@Test
+	void descendingSeekResumesRightAfterEveryRowIncludingTheNullGroup() {
+		for (String key : List.of("name", "quantity", "performedAt", "id")) {
+			assertSeeksMatchOrder(key, Sort.Direction.DESC);
+		}
+	}
+
+	@Test
+	void cursorInTheNullGroupOnlyContinuesWithinItWhenAscending() {
+		// ASC: NULLs come last, so after (null, 2) only the remaining NULL rows follow
+		assertThat(matching(new PageCursor("name", Sort.Direction.ASC, null, 2L))).containsExactly(5L);
+		// DESC: NULLs come first, so every non-NULL row still follows
+		assertThat(matching(new PageCursor("name", Sort.Direction.DESC, null, 5L)))
+				.containsExactlyInAnyOrder(2L, 1L, 3L, 4L, 6L, 7L);
+	}
+
+	@Test
+	void malformedValueForTheSortKeyTypeIsRejected() {
+		PageCursor cursor = new PageCursor("quantity", Sort.Direction.ASC, "not-a-number", 1L);
+
+		assertThatThrownBy(() -> matching(cursor))
+				.isInstanceOf(InvalidCursorException.class)
+				.hasMessage("Malformed cursor");
+	}
+
+	@Test
+	void cursorForAnotherSortKeyOrDirectionIsRejectedBeforeQuerying() {
+		AuditRepository repository = mock(AuditRepository.class);
+		String byActor = new PageCursor("performedBy", Sort.Direction.DESC, "alice", 3L).encode();
+		String ascending = new PageCursor("performedAt", Sort.Direction.ASC, T.toString(), 3L).encode();
+		PageRequest request = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "performedAt"));
+
+		assertThatThrownBy(() -> KeysetPagination.fetch(repository, Specification.<Audit>where(null), request, byActor, false))
+				.isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> KeysetPagination.fetch(repository, Specification.<Audit>where(null), request, ascending, false))
+				.isInstanceOf(InvalidCursorException.class);
+		verifyNoInteractions(repository);
+	}
+
+	// -------------------------
+	// Helpers
+	// -------------------------
+	private static void assertSeeksMatchOrder(String key, Sort.Direction direction) {
+		List<Map<String, Object>> sorted = new ArrayList<>(ROWS);
+		sorted.sort(postgresOrder(key, direction));
+		for (int i = 0; i < sorted.size(); i++) {
+			Map<String, Object> last = sorted.get(i);
+			Object value = last.get(key);
+			PageCursor cursor = new PageCursor(key, direction, value == null ? null : value.toString(), (Long) last.get("id"));
+
+			List<Long> expected = sorted.subList(i + 1, sorted.size()).stream().map(r -> (Long) r.get("id")).toList();
+			assertThat(matching(cursor)).as("%s %s after id %s", key, direction, last.get("id"))
+					.containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Comparator<Map<String, Object>> postgresOrder(String key, Sort.Direction direction) {
+		Comparator<Comparable> values = Comparator.naturalOrder();
+		Comparator<Map<String, Object>> byKey = Comparator.comparing(r -> (Comparable) r.get(key),
+				direction.isAscending() ? Comparator.nullsLast(values) : Comparator.nullsFirst(values.reversed()));
+		Comparator<Map<String, Object>> byId = Comparator.comparing(r -> (Long) r.get("id"));
+		return byKey.thenComparing(direction.isAscending() ? byId : byId.reversed());
+	}
+
+	private static List<Long> matching(PageCursor cursor) {
+		InMemoryCriteria criteria = new InMemoryCriteria();
+		Predicate predicate = KeysetPagination.<Audit>after(cursor).toPredicate(criteria.root(), null, criteria.builder());
+		return ROWS.stream().filter(criteria.evaluator(predicate)::apply).map(r -> (Long) r.get("id")).toList();
+	}
+
+	private static Map<String, Object> row(Long id, String name, Integer quantity, LocalDateTime performedAt) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("name", name);
+		row.put("quantity", quantity);
+		row.put("performedAt", performedAt);
+		return row;
+	}
+
+	/**
+	 * Just enough of the Criteria API for the seek predicate: paths read a row's column, predicates
+	 * evaluate with SQL semantics (comparisons with NULL are false).
+	 */
+	static class InMemoryCriteria {
+		private final Map<Object, Function<Map<String, Object>, Boolean>> predicates = new IdentityHashMap<>();
+		private final Map<Object, String> columns = new IdentityHashMap<>();
+
+		Root<Audit> root() {
+			return proxy(Root.class, (method, args) -> path((String) args[0]));
+		}
+
+		Function<Map<String, Object>, Boolean> evaluator(Predicate predicate) {
+			return predicates.get(predicate);
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		CriteriaBuilder builder() {
+			return proxy(CriteriaBuilder.class, (method, args) -> {
+				switch (method) {
+					case "isNull": {
+						String column = columns.get(args[0]);
+						return predicate(r -> r.get(column) == null);
+					}
+					case "isNotNull": {
+						String column = columns.get(args[0]);
+						return predicate(r -> r.get(column) != null);
+					}
+					case "equal": {
+						String column = columns.get(args[0]);
+						return predicate(r -> r.get(column) != null && Objects.equals(r.get(column), args[1]));
+					}
+					case "greaterThan":
+					case "lessThan": {
+						String column = columns.get(args[0]);
+						int sign = method.equals("greaterThan") ? 1 : -1;
+						return predicate(r -> r.get(column) != null
+								&& Integer.signum(((Comparable) r.get(column)).compareTo(args[1])) == sign);
+					}
+					case "and":
+					case "or": {
+						List<Function<Map<String, Object>, Boolean>> parts = new ArrayList<>();
+						for (Object arg : args) {
+							for (Object p : arg instanceof Object[] array ? array : new Object[] {arg}) {
+								parts.add(predicates.get(p));
+							}
+						}
+						boolean and = method.equals("and");
+						return predicate(r -> and
+								? parts.stream().allMatch(p -> p.apply(r))
+								: parts.stream().anyMatch(p -> p.apply(r)));
+					}
+					default:
+						throw new UnsupportedOperationException(method);
+				}
+			});
+		}
+
+		private Path<?> path(String column) {
+			Path<?> path = proxy(Path.class, (method, args) -> switch (method) {
+				case "getJavaType" -> TYPES.get(column);
+				case "get" -> path(column + "." + args[0]);
+				default -> throw new UnsupportedOperationException(method);
+			});
+			columns.put(path, column);
+			return path;
+		}
+
+		private Predicate predicate(Function<Map<String, Object>, Boolean> test) {
+			Predicate predicate = proxy(Predicate.class, (method, args) -> {
+				throw new UnsupportedOperationException(method);
+			});
+			predicates.put(predicate, test);
+			return predicate;
+		}
+
+		private interface Handler {
+			Object handle(String method, Object[] args);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <P> P proxy(Class<?> type, Handler handler) {
+			return (P) Proxy.newProxyInstance(KeysetPaginationTest.class.getClassLoader(), new Class<?>[] {type},
+					(self, method, args) -> switch (method.getName()) {
+						case "hashCode" -> System.identityHashCode(self);
+						case "equals" -> self == args[0];
+						case "toString" -> type.getSimpleName();
+						default -> handler.handle(method.getName(), args);
+					});
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.ecom_proj.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PooledIdAllocatorTest {
+
+	@Test
+	void usesTheBlockBelowEachSequenceValue() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("asset_seq"), eq(2)))
+				.thenReturn(List.of(150L, 200L));
+
+		List<Long> ids = new PooledIdAllocator(jdbcTemplate).allocate("asset_seq", 60);
+
+		assertThat(ids).containsExactlyElementsOf(LongStream.rangeClosed(101, 160).boxed().toList());
+	}
+
+	@Test
+	void topsUpWhenAFreshSequenceReturnsOne() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("audit_seq"), eq(1)))
+				.thenReturn(List.of(1L), List.of(51L));
+
+		List<Long> ids = new PooledIdAllocator(jdbcTemplate).allocate("audit_seq", 3);
+
+		assertThat(ids).containsExactly(1L, 2L, 3L);
+	}
+}
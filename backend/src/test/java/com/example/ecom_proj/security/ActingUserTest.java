@@ -0,0 +1,60 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.service.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ActingUserTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final ActingUser actingUser = new ActingUser(new UserCache(userRepository, 100, Duration.ofMinutes(5)));
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readsTheJwtPrincipalWithoutALookup() {
+		JwtPrincipal principal = new JwtPrincipal(7L, "alice", Users.Role.STAFF);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+
+		assertThat(actingUser.require()).isSameAs(principal);
+		assertThat(ActingUser.username()).isEqualTo("alice");
+		verifyNoInteractions(userRepository);
+	}
+
+	@Test
+	void fallsBackToTheUserCacheForOtherAuthentications() {
+		when(userRepository.findByUsername("bob")).thenReturn(new Users(9L, "bob", "hash", Users.Role.ADMIN));
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+
+		assertThat(actingUser.get()).isEqualTo(new JwtPrincipal(9L, "bob", Users.Role.ADMIN));
+	}
+
+	@Test
+	void hasNoActingUserForAnonymousRequests() {
+		SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+				"key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+		assertThat(actingUser.get()).isNull();
+		assertThatThrownBy(actingUser::require).isInstanceOf(IllegalStateException.class);
+		assertThat(ActingUser.username()).isEqualTo("anonymousUser");
+		verifyNoInteractions(userRepository);
+	}
+}
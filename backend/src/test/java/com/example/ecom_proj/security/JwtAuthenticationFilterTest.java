@@ -0,0 +1,114 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.RevokedTokenRepository;
+import com.example.ecom_proj.repository.TokenCutoffRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.service.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+	private JwtUtil jwtUtil;
+	private UserRepository userRepository;
+	private TokenRevocationService revocationService;
+	private TokenDenylist denylist;
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-32-bytes-long", 60_000L, 100);
+		userRepository = mock(UserRepository.class);
+		revocationService = new TokenRevocationService(mock(TokenCutoffRepository.class),
+				mock(PlatformTransactionManager.class), 60_000L);
+		denylist = new TokenDenylist(mock(RevokedTokenRepository.class), 1000);
+		filter = new JwtAuthenticationFilter(jwtUtil, new UserCache(userRepository, 100, Duration.ofMinutes(5)),
+				revocationService, denylist);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void authenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+		String token = jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.STAFF));
+
+		Authentication auth = filter(token);
+
+		assertThat(auth.getName()).isEqualTo("alice");
+		assertThat(auth.getPrincipal()).isEqualTo(new JwtPrincipal(7L, "alice", Users.Role.STAFF));
+		assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_STAFF");
+		verifyNoInteractions(userRepository);
+	}
+
+	@Test
+	void rejectsTokensIssuedBeforeARevocation() throws Exception {
+		String token = jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.ADMIN));
+		revocationService.revokeIssuedBefore("alice", Instant.now().plusSeconds(1));
+
+		assertThat(filter(token)).isNull();
+	}
+
+	@Test
+	void aLoginJustAfterARevocationIsAccepted() throws Exception {
+		revocationService.revokeAll("alice");
+		Thread.sleep(2);
+
+		// same wall-clock second as the cutoff, but issued after it
+		assertThat(filter(jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.STAFF)))).isNotNull();
+	}
+
+	@Test
+	void rejectsALoggedOutToken() throws Exception {
+		String token = jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.ADMIN));
+		JwtTokenDetails details = (JwtTokenDetails) filter(token).getDetails();
+		SecurityContextHolder.clearContext();
+
+		denylist.revoke(details.jti(), details.expiresAt());
+
+		assertThat(filter(token)).isNull();
+		assertThat(filter(jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.ADMIN)))).isNotNull();
+	}
+
+	@Test
+	void fallsBackToALookupForTokensWithoutClaims() throws Exception {
+		String token = jwtUtil.generateToken(Map.of(), "bob");
+		when(userRepository.findByUsername("bob")).thenReturn(new Users(9L, "bob", "hash", Users.Role.VIEWER));
+
+		Authentication auth = filter(token);
+
+		assertThat(auth.getPrincipal()).isEqualTo(new JwtPrincipal(9L, "bob", Users.Role.VIEWER));
+	}
+
+	@Test
+	void ignoresTamperedTokens() throws Exception {
+		String token = jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.VIEWER));
+
+		assertThat(filter(token.substring(0, token.length() - 2) + "xx")).isNull();
+	}
+
+	private Authentication filter(String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/assets");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.Users;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+	private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+	@Test
+	void answersARepeatTokenFromTheVerifiedCache() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L, 100);
+		String token = jwtUtil.generateToken(new Users(7L, "alice", "hash", Users.Role.STAFF));
+
+		Claims first = jwtUtil.parseClaims(token);
+
+		assertThat(jwtUtil.parseClaims(token)).isSameAs(first);
+		assertThat(JwtUtil.principalOf(first)).isEqualTo(new JwtPrincipal(7L, "alice", Users.Role.STAFF));
+	}
+
+	@Test
+	void rejectsATokenSignedWithAnotherKey() {
+		String token = new JwtUtil(SECRET.replace('t', 'x'), 60_000L, 100).generateToken(Map.of(), "alice");
+
+		assertThatThrownBy(() -> new JwtUtil(SECRET, 60_000L, 100).parseClaims(token))
+				.isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void doesNotCacheExpiredTokens() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, -1_000L, 100);
+		String token = jwtUtil.generateToken(Map.of(), "alice");
+
+		assertThatThrownBy(() -> jwtUtil.parseClaims(token)).isInstanceOf(ExpiredJwtException.class);
+		assertThatThrownBy(() -> jwtUtil.parseClaims(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void limitsAUsernameToItsBurstThenRefills() {
+		LoginThrottle throttle = new LoginThrottle(2, 6, 100, 100, clock::get);
+
+		throttle.check("alice", "10.0.0.1");
+		throttle.check("ALICE", "10.0.0.2");
+		assertThatThrownBy(() -> throttle.check("alice", "10.0.0.3"))
+				.isInstanceOfSatisfying(TooManyRequestsException.class,
+						e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(10));
+
+		// 6 per minute → one token every 10s
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		throttle.check("alice", "10.0.0.4");
+		throttle.check("bob", "10.0.0.4");
+	}
+
+	@Test
+	void limitsAnAddressAcrossUsernames() {
+		LoginThrottle throttle = new LoginThrottle(100, 100, 2, 1, clock::get);
+
+		throttle.check("a", "10.0.0.1");
+		throttle.check("b", "10.0.0.1");
+
+		assertThatThrownBy(() -> throttle.check("c", "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+		throttle.check("c", "10.0.0.2");
+		assertThat(throttle.stats()).containsEntry("ipRejections", 1L);
+	}
+}
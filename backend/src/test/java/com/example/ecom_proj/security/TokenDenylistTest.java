@@ -0,0 +1,69 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.RevokedToken;
+import com.example.ecom_proj.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenDenylistTest {
+
+	@Test
+	void deniesRevokedIdsAndPersistsThem() {
+		RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+		TokenDenylist denylist = new TokenDenylist(repository, 1000);
+
+		denylist.revoke("a", Instant.now().plusSeconds(60));
+
+		assertThat(denylist.isRevoked("a")).isTrue();
+		assertThat(denylist.isRevoked("b")).isFalse();
+		assertThat(denylist.isRevoked(null)).isFalse();
+		verify(repository).save(argThat(r -> r.getJti().equals("a")));
+	}
+
+	@Test
+	void picksUpRevocationsFromOtherInstancesOnSync() {
+		RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+		when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+				.thenReturn(List.of(new RevokedToken("remote", Instant.now().plusSeconds(60), Instant.now())));
+		TokenDenylist denylist = new TokenDenylist(repository, 1000);
+
+		denylist.sync();
+
+		assertThat(denylist.isRevoked("remote")).isTrue();
+		verify(repository).deleteExpired(any());
+	}
+
+	@Test
+	void dropsExpiredEntriesAndRebuildsTheFilter() {
+		TokenDenylist denylist = new TokenDenylist(mock(RevokedTokenRepository.class), 10);
+		for (int i = 0; i < 20; i++) {
+			denylist.revoke(UUID.randomUUID().toString(), Instant.now().plusSeconds(1));
+		}
+		denylist.revoke("live", Instant.now().plusSeconds(3600));
+
+		denylist.purge(Instant.now().plusSeconds(2));
+
+		assertThat(denylist.stats()).containsEntry("revoked", 1).containsEntry("bloomInserts", 1);
+		assertThat(denylist.isRevoked("live")).isTrue();
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		BloomFilter bloom = new BloomFilter(1000);
+		List<String> keys = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+		keys.forEach(bloom::put);
+
+		assertThat(keys).allMatch(bloom::mightContain);
+		long falsePositives = IntStream.range(0, 10_000)
+				.filter(i -> bloom.mightContain(UUID.randomUUID().toString())).count();
+		assertThat(falsePositives).isLessThan(300);
+	}
+}
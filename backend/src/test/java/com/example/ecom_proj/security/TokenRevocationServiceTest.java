@@ -0,0 +1,89 @@
+package com.example.ecom_proj.security;
+
+import com.example.ecom_proj.model.TokenCutoff;
+import com.example.ecom_proj.repository.TokenCutoffRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+	private TokenCutoffRepository repository;
+	private TokenRevocationService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(TokenCutoffRepository.class);
+		service = new TokenRevocationService(repository, mock(PlatformTransactionManager.class), 60_000L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void comparesMillisecondIssueTimesStrictly() {
+		Instant cutoff = Instant.parse("2026-05-01T10:00:00.500Z");
+		service.revokeIssuedBefore("alice", cutoff);
+
+		assertThat(service.isRevoked("alice", cutoff.minusMillis(1))).isTrue();
+		assertThat(service.isRevoked("alice", cutoff)).isFalse();
+		assertThat(service.isRevoked("alice", cutoff.plusMillis(1))).isFalse();
+		assertThat(service.isRevoked("bob", cutoff.minusSeconds(10))).isFalse();
+		verify(repository).save(new TokenCutoff("alice", cutoff, cutoff.plusMillis(60_000L)));
+	}
+
+	@Test
+	void revocationInsideATransactionWaitsForTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		Instant before = Instant.now().minusSeconds(1);
+
+		service.revokeAll("alice");
+		assertThat(service.isRevoked("alice", before)).isFalse();
+		verify(repository, never()).save(any());
+
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(service.isRevoked("alice", before)).isTrue();
+		verify(repository).save(any(TokenCutoff.class));
+	}
+
+	@Test
+	void rolledBackChangesRevokeNothing() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		service.revokeAll("alice");
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertThat(service.isRevoked("alice", Instant.now().minusSeconds(1))).isFalse();
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void picksUpCutoffsRecordedByOtherInstances() {
+		Instant cutoff = Instant.now();
+		when(repository.findByRevokedBeforeGreaterThanEqualAndExpiresAtAfter(any(), any()))
+				.thenReturn(List.of(new TokenCutoff("alice", cutoff, cutoff.plusSeconds(60))));
+
+		service.sync();
+
+		assertThat(service.isRevoked("alice", cutoff.minusMillis(1))).isTrue();
+		verify(repository).deleteExpired(any());
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.dto.AssetCategoryDTO;
+import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.repository.AssetCategoryRepository;
+import com.example.ecom_proj.repository.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AssetCategoryServiceTest {
+
+	private AssetCategoryRepository repository;
+	private AssetRepository assetRepository;
+	private CategoryCountCache countCache;
+	private AssetCategoryService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AssetCategoryRepository.class);
+		assetRepository = mock(AssetRepository.class);
+		countCache = new CategoryCountCache(Duration.ofMinutes(1));
+		service = new AssetCategoryService(repository, mock(AuditService.class), assetRepository,
+				new AssetCache(100, Duration.ofMinutes(1)), countCache);
+	}
+
+	@Test
+	void listingIsOneGroupedQueryServedFromCacheUntilEvicted() {
+		when(repository.findAllWithAssetCounts()).thenReturn(List.of(
+				new AssetCategoryDTO(1L, "Laptops", null, null, 3L),
+				new AssetCategoryDTO(2L, "Empty", null, null, 0L)));
+
+		List<AssetCategoryDTO> first = service.getAllAssetCategories();
+		service.getAllAssetCategories();
+
+		assertThat(first).extracting(AssetCategoryDTO::getAssetCount).containsExactly(3, 0);
+		verify(repository, times(1)).findAllWithAssetCounts();
+		verify(assetRepository, never()).countByCategoryId(any());
+		verify(repository, never()).findAll();
+
+		countCache.evict();
+		service.getAllAssetCategories();
+		verify(repository, times(2)).findAllWithAssetCounts();
+	}
+
+	@Test
+	void statusBreakdownFoldsOneRowPerCategoryAndStatus() {
+		when(repository.findAllWithAssetCountsByStatus()).thenReturn(List.of(
+				new Object[]{1L, "Laptops", "d", "/i.png", Asset.AssetStatus.AVAILABLE, 2L},
+				new Object[]{1L, "Laptops", "d", "/i.png", Asset.AssetStatus.IN_USE, 5L},
+				new Object[]{2L, "Empty", null, null, null, 0L}));
+
+		List<AssetCategoryDTO> categories = service.getAllAssetCategories(true);
+
+		assertThat(categories).hasSize(2);
+		assertThat(categories.get(0).getAssetCount()).isEqualTo(7);
+		assertThat(categories.get(0).getStatusCounts())
+				.isEqualTo(Map.of(Asset.AssetStatus.AVAILABLE, 2L, Asset.AssetStatus.IN_USE, 5L));
+		assertThat(categories.get(1).getAssetCount()).isZero();
+		assertThat(categories.get(1).getStatusCounts()).isEmpty();
+		verify(repository, never()).findAllWithAssetCounts(); // cached separately from the plain listing
+	}
+}
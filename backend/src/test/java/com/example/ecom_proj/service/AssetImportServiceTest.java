@@ -0,0 +1,127 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.dto.AssetImportResult;
+import com.example.ecom_proj.model.AssetCategory;
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.AssetCategoryRepository;
+import com.example.ecom_proj.repository.PooledIdAllocator;
+import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.ActingUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AssetImportServiceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private AssetImportService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		AssetCategoryRepository categoryRepository = mock(AssetCategoryRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+
+		AssetCategory laptops = new AssetCategory();
+		laptops.setId(1L);
+		laptops.setName("Laptops");
+		when(categoryRepository.findAll()).thenReturn(List.of(laptops));
+		Users admin = new Users(5L, "admin", "x", Users.Role.ADMIN);
+		when(userRepository.findByUsername("admin")).thenReturn(admin);
+		PooledIdAllocator idAllocator = mock(PooledIdAllocator.class);
+		when(idAllocator.allocate(anyString(), anyInt()))
+				.thenAnswer(inv -> LongStream.rangeClosed(1, (Integer) inv.getArgument(1)).boxed().toList());
+
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+
+		service = new AssetImportService(jdbcTemplate, categoryRepository,
+				new ActingUser(new UserCache(userRepository, 100, Duration.ofMinutes(5))),
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				new ObjectMapper().registerModule(new JavaTimeModule()), idAllocator,
+				mock(DashboardCounterService.class), mock(CategoryCountCache.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void csvImportReportsBadRowsAndBatchesTheRest() {
+		// an existing serial number comes back from the single duplicate query
+		doAnswer(inv -> {
+			RowCallbackHandler handler = inv.getArgument(1);
+			var rs = mock(java.sql.ResultSet.class);
+			when(rs.getString("name")).thenReturn("Old");
+			when(rs.getString("serial_number")).thenReturn("SN-TAKEN");
+			handler.processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+		String csv = """
+				name,serial_number,category,status,purchaseDate,cost,imageUrl
+				Laptop A,SN-1,laptops,available,2024-01-02,1200,/uploads/a.png
+				"Laptop, B",SN-2,Laptops,IN_USE,,99.5,/uploads/b.png
+				Laptop C,SN-1,Laptops,,,,/uploads/c.png
+				Laptop D,sn-lower,Laptops,,,,/uploads/d.png
+				Laptop E,SN-5,Phones,,,,/uploads/e.png
+				Laptop F,SN-TAKEN,Laptops,,,,/uploads/f.png
+				Laptop G,SN-7,Laptops,,,not-a-number,/uploads/g.png
+				""";
+
+		AssetImportResult result = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(result.getReceived()).isEqualTo(7);
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(5);
+		assertThat(result.getErrors()).extracting(AssetImportResult.RowError::getRow)
+				.containsExactlyInAnyOrder(3, 4, 5, 6, 7);
+
+		verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+		verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void jsonImportAcceptsNestedCategory() {
+		String json = """
+				[{"name":"Monitor","serialNumber":"MON-1","category":{"id":1},"cost":150,"imageUrl":"/uploads/m.png"},
+				 {"name":"X","serialNumber":"MON-2","categoryId":1,"imageUrl":"/uploads/x.png"}]
+				""";
+
+		AssetImportResult result = service.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(result.getImported()).isEqualTo(1);
+		assertThat(result.getErrors()).singleElement()
+				.satisfies(e -> assertThat(e.getMessage()).contains("name"));
+	}
+
+	@Test
+	void csvRecordsHandleQuotesAndLineBreaks() {
+		AssetImportService.CsvRecords records = new AssetImportService.CsvRecords(
+				new StringReader("a,\"b \"\"q\"\"\",\"multi\r\nline\"\r\nx,,z"));
+
+		assertThat(records.next()).containsExactly("a", "b \"q\"", "multi\r\nline");
+		assertThat(records.next()).containsExactly("x", "", "z");
+		assertThat(records.next()).isNull();
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.configuration.SchemaMigrations;
+import com.example.ecom_proj.dto.AssetSearchCriteria;
+import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.repository.AssetHolderRepository;
+import com.example.ecom_proj.repository.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Guards against the per-asset borrower lookup coming back: a page of assets must cost
+ * one search query plus at most one borrower query, regardless of how many are IN_USE.
+ */
+class AssetServiceTest {
+
+	private AssetRepository assetRepository;
+	private AssetHolderRepository holderRepository;
+	private AssetCache assetCache;
+	private AssetService service;
+
+	@BeforeEach
+	void setUp() {
+		assetRepository = mock(AssetRepository.class);
+		holderRepository = mock(AssetHolderRepository.class);
+		assetCache = new AssetCache(100, Duration.ofMinutes(1));
+		service = new AssetService(assetRepository, mock(AuditService.class),
+				mock(AssetTransactionService.class), new AssetHolderService(holderRepository, assetCache, mock(SchemaMigrations.class)), assetCache,
+				mock(ExportService.class), mock(DashboardCounterService.class), mock(CategoryCountCache.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void searchAssetsResolvesBorrowersWithOneQueryPerPage() {
+		List<Asset> content = new ArrayList<>();
+		for (long id = 1; id <= 50; id++) {
+			content.add(asset(id, id % 5 == 0 ? Asset.AssetStatus.AVAILABLE : Asset.AssetStatus.IN_USE));
+		}
+		when(assetRepository.findAll(any(Specification.class), any(Pageable.class)))
+				.thenAnswer(inv -> new PageImpl<>(content, inv.getArgument(1), 50));
+		when(holderRepository.findHoldersByAssetIds(anyCollection()))
+				.thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+						.map(id -> holder(id, 100 + id, "user" + id))
+						.toList());
+
+		Slice<Asset> page = service.searchAssets(AssetSearchCriteria.builder().page(0).size(50).build());
+
+		ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+		verify(holderRepository, times(1)).findHoldersByAssetIds(ids.capture());
+		assertThat(ids.getValue()).hasSize(40);
+
+		assertThat(page.getContent()).allSatisfy(a -> {
+			if (a.getStatus() == Asset.AssetStatus.IN_USE) {
+				assertThat(a.getBorrowedBy()).isNotNull();
+				assertThat(a.getBorrowedBy().getId()).isEqualTo(100 + a.getId());
+			} else {
+				assertThat(a.getBorrowedBy()).isNull();
+			}
+		});
+	}
+
+	@Test
+	void getAllAssetsSkipsBorrowerQueryWhenNothingIsInUse() {
+		when(assetRepository.findAll()).thenReturn(List.of(
+				asset(1L, Asset.AssetStatus.AVAILABLE),
+				asset(2L, Asset.AssetStatus.MAINTENANCE)));
+
+		service.getAllAssets();
+
+		verifyNoInteractions(holderRepository);
+	}
+
+	@Test
+	void inUseAssetWithoutHolderHasNoBorrower() {
+		when(assetRepository.findAll()).thenReturn(List.of(asset(7L, Asset.AssetStatus.IN_USE)));
+		when(holderRepository.findHoldersByAssetIds(anyCollection())).thenReturn(List.of());
+
+		List<Asset> assets = service.getAllAssets();
+
+		assertThat(assets.get(0).getBorrowedBy()).isNull();
+	}
+
+	@Test
+	void getAssetByIdIsServedFromCacheUntilEvicted() {
+		when(assetRepository.findById(3L)).thenReturn(Optional.of(asset(3L, Asset.AssetStatus.IN_USE)));
+		when(holderRepository.findHoldersByAssetIds(anyCollection())).thenReturn(List.of(holder(3L, 9L, "bob")));
+
+		service.getAssetById(3L);
+		Asset cached = service.getAssetById(3L);
+
+		verify(assetRepository, times(1)).findById(3L);
+		verify(holderRepository, times(1)).findHoldersByAssetIds(anyCollection());
+		assertThat(cached.getBorrowedBy().getUsername()).isEqualTo("bob");
+		assertThat(assetCache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+
+		assetCache.evict(3L);
+		service.getAssetById(3L);
+
+		verify(assetRepository, times(2)).findById(3L);
+	}
+
+	private static Asset asset(Long id, Asset.AssetStatus status) {
+		Asset asset = new Asset();
+		asset.setId(id);
+		asset.setName("Asset " + id);
+		asset.setStatus(status);
+		return asset;
+	}
+
+	private static AssetHolderRepository.HolderView holder(Long assetId, Long userId, String username) {
+		return new AssetHolderRepository.HolderView() {
+			public Long getAssetId() { return assetId; }
+			public Long getUserId() { return userId; }
+			public String getUsername() { return username; }
+		};
+	}
+}
@@ -0,0 +1,163 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Audit;
+import com.example.ecom_proj.repository.PooledIdAllocator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditWriterTest {
+
+	@TempDir
+	Path dir;
+
+	private JdbcTemplate jdbcTemplate;
+	private PooledIdAllocator idAllocator;
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		idAllocator = mock(PooledIdAllocator.class);
+		when(idAllocator.allocate(anyString(), anyInt()))
+				.thenAnswer(inv -> LongStream.rangeClosed(1, (Integer) inv.getArgument(1)).boxed().toList());
+		objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	}
+
+	private AuditWriter writer(int capacity, AuditWriter.OverflowPolicy policy, boolean spool) throws Exception {
+		return writer(capacity, policy, spool, 1 << 20);
+	}
+
+	private AuditWriter writer(int capacity, AuditWriter.OverflowPolicy policy, boolean spool, long segmentBytes) throws Exception {
+		return new AuditWriter(jdbcTemplate, idAllocator, mock(PlatformTransactionManager.class), objectMapper,
+				capacity, 50, Duration.ofMillis(20), policy, spool, dir.resolve("audit.ndjson").toString(), false, segmentBytes);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void queuedEntriesAreWrittenInBatches() throws Exception {
+		AuditWriter writer = writer(1000, AuditWriter.OverflowPolicy.CALLER_RUNS, false);
+		for (long i = 0; i < 120; i++) {
+			writer.submit(audit(i));
+		}
+		writer.start();
+		writer.stop();
+
+		ArgumentCaptor<List> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate, atLeast(3)).batchUpdate(anyString(), (List<Object[]>) rows.capture());
+		assertThat(rows.getAllValues()).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(50));
+		assertThat(writer.stats()).containsEntry("written", 120L);
+	}
+
+	@Test
+	void fullQueueFollowsOverflowPolicy() throws Exception {
+		AuditWriter dropping = writer(2, AuditWriter.OverflowPolicy.DROP, false);
+		AuditWriter callerRuns = writer(2, AuditWriter.OverflowPolicy.CALLER_RUNS, false);
+		for (long i = 0; i < 5; i++) {
+			dropping.submit(audit(i));
+			callerRuns.submit(audit(i));
+		}
+
+		assertThat(dropping.stats()).containsEntry("dropped", 3L).containsEntry("queued", 2);
+		assertThat(callerRuns.stats()).containsEntry("callerRuns", 3L).containsEntry("written", 3L);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void spoolLeftByACrashIsReplayedOnStartKeepingItsIds() throws Exception {
+		AuditWriter crashed = writer(100, AuditWriter.OverflowPolicy.CALLER_RUNS, true);
+		crashed.submit(audit(1));
+		crashed.submit(audit(2));
+		assertThat(Files.readAllLines(dir.resolve("audit.ndjson.0"))).hasSize(2);
+
+		// next start: the leftover segment is written before new entries, then deleted
+		AuditWriter restarted = writer(100, AuditWriter.OverflowPolicy.CALLER_RUNS, true);
+		restarted.start();
+		restarted.stop();
+
+		assertThat(restarted.stats()).containsEntry("written", 2L);
+		assertThat(dir.resolve("audit.ndjson.0")).doesNotExist();
+		assertThat(Files.size(dir.resolve("audit.ndjson.1"))).isZero();
+
+		// the ids given when spooled are reused, and rows already in the table are skipped
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<List> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(sql.capture(), (List<Object[]>) rows.capture());
+		assertThat(sql.getValue()).contains("ON CONFLICT (id) DO NOTHING");
+		assertThat(((List<Object[]>) rows.getValue())).extracting(row -> row[0]).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void spoolIsCompactedUnderSteadyLoad() throws Exception {
+		// tiny segments: the queue never empties, so only rotation keeps the spool small
+		AuditWriter writer = writer(1000, AuditWriter.OverflowPolicy.BLOCK, true, 512);
+		writer.start();
+		for (long i = 0; i < 2000; i++) {
+			writer.submit(audit(i));
+		}
+		writer.stop();
+
+		assertThat(writer.stats()).containsEntry("written", 2000L);
+		try (Stream<Path> files = Files.list(dir)) {
+			// only the (empty) current segment is left
+			assertThat(files.toList()).singleElement().satisfies(f -> assertThat(Files.size(f)).isZero());
+		}
+	}
+
+	@Test
+	void blockingProducersWithASpoolDoNotDeadlockTheWorker() throws Exception {
+		AuditWriter writer = writer(2, AuditWriter.OverflowPolicy.BLOCK, true);
+		writer.start();
+		ExecutorService producers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(producers.submit(() -> {
+					for (long i = 0; i < 200; i++) {
+						writer.submit(audit(i));
+					}
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			producers.shutdownNow();
+		}
+		writer.stop();
+
+		assertThat(writer.stats()).containsEntry("written", 1600L).containsEntry("dropped", 0L);
+	}
+
+	private static Audit audit(long entityId) {
+		return Audit.builder()
+				.actionType("UPDATE")
+				.entityName("Asset")
+				.entityId(entityId)
+				.performedBy("admin")
+				.performedAt(LocalDateTime.now())
+				.build();
+	}
+}
@@ -0,0 +1,155 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.BorrowRequestConflictException;
+import com.example.ecom_proj.model.Asset;
+import com.example.ecom_proj.model.AssetTransaction;
+import com.example.ecom_proj.model.BorrowRequest;
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.AssetRepository;
+import com.example.ecom_proj.repository.AssetTransactionRepository;
+import com.example.ecom_proj.repository.BorrowRequestRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import com.example.ecom_proj.security.ActingUser;
+import com.example.ecom_proj.security.JwtPrincipal;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BorrowRequestServiceTest {
+
+	private BorrowRequestRepository borrowRequestRepository;
+	private AssetRepository assetRepository;
+	private UserRepository userRepository;
+	private AssetTransactionRepository transactionRepository;
+	private AuditService auditService;
+	private ActingUser actingUser;
+	private Session session;
+	private BorrowRequestService service;
+
+	private Asset asset;
+	private Users requester;
+	private BorrowRequest request;
+
+	@BeforeEach
+	void setUp() {
+		borrowRequestRepository = mock(BorrowRequestRepository.class);
+		assetRepository = mock(AssetRepository.class);
+		userRepository = mock(UserRepository.class);
+		transactionRepository = mock(AssetTransactionRepository.class);
+		auditService = mock(AuditService.class);
+		actingUser = mock(ActingUser.class);
+		session = mock(Session.class);
+		EntityManager entityManager = mock(EntityManager.class);
+		when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+		service = new BorrowRequestService(borrowRequestRepository, assetRepository, userRepository,
+				transactionRepository, mock(NotificationService.class), auditService, mock(AssetHolderService.class),
+				mock(AssetCache.class), mock(DashboardCounterService.class), actingUser, entityManager, mock(UserCache.class),
+				mock(EventStreamPublisher.class), mock(CategoryCountCache.class));
+
+		asset = new Asset();
+		asset.setId(7L);
+		asset.setName("Laptop");
+		asset.setStatus(Asset.AssetStatus.AVAILABLE);
+		asset.setVersion(3L);
+		requester = new Users(2L, "bob", null, Users.Role.STAFF);
+		request = new BorrowRequest();
+		request.setId(11L);
+		request.setAsset(asset);
+		request.setRequester(requester);
+		request.setStatus(BorrowRequest.Status.PENDING);
+		when(borrowRequestRepository.findByIdWithAssetAndRequester(11L)).thenReturn(Optional.of(request));
+		when(borrowRequestRepository.transitionProcessed(any(), any(), any(), any(), any(), any())).thenReturn(1);
+		when(borrowRequestRepository.transition(any(), any(), any(), any())).thenReturn(1);
+		when(assetRepository.updateStatus(any(), any(), any())).thenReturn(1);
+	}
+
+	@Test
+	void approvalWritesTheAssetStatusWithOneUpdateAndLoadsNoOtherRows() {
+		Users adminRef = new Users(1L, null, null, null);
+		when(userRepository.getReferenceById(1L)).thenReturn(adminRef);
+		when(actingUser.get()).thenReturn(new JwtPrincipal(1L, "admin", Users.Role.ADMIN));
+
+		BorrowRequest approved = service.approveRequest(11L, 1L);
+
+		assertThat(approved.getStatus()).isEqualTo(BorrowRequest.Status.APPROVED);
+		assertThat(approved.getProcessedBy()).isSameAs(adminRef);
+		verify(borrowRequestRepository).transitionProcessed(eq(11L), eq(BorrowRequest.Status.PENDING),
+				eq(BorrowRequest.Status.APPROVED), same(adminRef), any(), isNull());
+		verify(assetRepository).updateStatus(7L, 3L, Asset.AssetStatus.IN_USE);
+		assertThat(asset.getVersion()).isEqualTo(4L);
+		verify(session).setReadOnly(asset, true);
+		verify(session).setReadOnly(request, true);
+		verify(borrowRequestRepository, never()).save(any());
+		verify(assetRepository, never()).save(any());
+		verify(assetRepository, never()).findById(any());
+		verify(userRepository, never()).findById(any());
+		verify(borrowRequestRepository, never()).findById(any());
+
+		ArgumentCaptor<AssetTransaction> tx = ArgumentCaptor.forClass(AssetTransaction.class);
+		verify(transactionRepository).save(tx.capture());
+		assertThat(tx.getValue().getAsset()).isSameAs(asset);
+		assertThat(tx.getValue().getUser()).isSameAs(requester);
+		verify(auditService).log(eq("BORROW APPROVED"), eq("bob"), eq(11L), eq("admin"), anyString());
+	}
+
+	@Test
+	void returnSetsTheAssetAvailableWithOneUpdate() {
+		request.setStatus(BorrowRequest.Status.APPROVED);
+
+		assertThat(service.ReturnRequestByRequester(11L, requester)).isTrue();
+
+		verify(borrowRequestRepository).transition(11L, BorrowRequest.Status.APPROVED,
+				BorrowRequest.Status.COMPLETE, "Borrow Complete by requester");
+		verify(assetRepository).updateStatus(7L, 3L, Asset.AssetStatus.AVAILABLE);
+		verify(assetRepository, never()).save(any());
+		verify(transactionRepository).save(any(AssetTransaction.class));
+	}
+
+	@Test
+	void approvalRejectsARequestThatIsNoLongerPending() {
+		request.setStatus(BorrowRequest.Status.DECLINED);
+
+		assertThatThrownBy(() -> service.approveRequest(11L, 1L))
+				.isInstanceOf(BorrowRequestConflictException.class);
+		verify(assetRepository, never()).updateStatus(any(), any(), any());
+	}
+
+	@Test
+	void approvalLosingTheStatusRaceIsAConflictAndLeavesTheAssetAlone() {
+		when(borrowRequestRepository.transitionProcessed(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> service.approveRequest(11L, 1L))
+				.isInstanceOf(BorrowRequestConflictException.class);
+		verify(assetRepository, never()).updateStatus(any(), any(), any());
+		verify(transactionRepository, never()).save(any());
+	}
+
+	@Test
+	void staleAssetVersionFailsTheApproval() {
+		when(assetRepository.updateStatus(any(), any(), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> service.approveRequest(11L, 1L))
+				.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		verify(transactionRepository, never()).save(any());
+	}
+
+	@Test
+	void returnLosingTheStatusRaceReturnsFalse() {
+		request.setStatus(BorrowRequest.Status.APPROVED);
+		when(borrowRequestRepository.transition(any(), any(), any(), any())).thenReturn(0);
+
+		assertThat(service.ReturnRequestByRequester(11L, requester)).isFalse();
+		verify(assetRepository, never()).updateStatus(any(), any(), any());
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.AssetRepository;
+import com.example.ecom_proj.repository.AssetTransactionRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DashboardCounterServiceTest {
+
+	private AssetRepository assetRepository;
+	private DashboardCounterService counters;
+
+	@BeforeEach
+	void setUp() {
+		assetRepository = mock(AssetRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		AssetTransactionRepository txnRepository = mock(AssetTransactionRepository.class);
+		when(assetRepository.count()).thenReturn(10L);
+		when(userRepository.count()).thenReturn(3L);
+		when(txnRepository.count()).thenReturn(40L);
+		counters = new DashboardCounterService(assetRepository, userRepository, txnRepository);
+		counters.reconcile();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void appliesDeltasOutsideATransactionImmediately() {
+		counters.assetsChanged(2);
+		counters.usersChanged(-1);
+
+		Map<String, Object> stats = counters.snapshot();
+		assertThat(stats).containsEntry("totalAssets", 12L)
+				.containsEntry("totalUsers", 2L)
+				.containsEntry("totalTransactions", 40L);
+		assertThat(stats.get("countersReconciledAt")).isNotNull();
+		assertThat((Long) stats.get("countersStalenessSeconds")).isZero();
+	}
+
+	@Test
+	void appliesDeltasInsideATransactionOnlyOnCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		counters.transactionsChanged(5);
+		assertThat(counters.snapshot()).containsEntry("totalTransactions", 40L);
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertThat(counters.snapshot()).containsEntry("totalTransactions", 45L);
+	}
+
+	@Test
+	void reconcileReplacesDriftedCounts() {
+		counters.assetsChanged(7);
+		when(assetRepository.count()).thenReturn(11L);
+
+		counters.reconcile();
+
+		assertThat(counters.snapshot()).containsEntry("totalAssets", 11L);
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.security.JwtPrincipal;
+import com.example.ecom_proj.security.JwtTokenDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class EventStreamServiceTest {
+
+	private static final JwtPrincipal BOB = new JwtPrincipal(2L, "bob", Users.Role.VIEWER);
+	private static final JwtPrincipal ADMIN = new JwtPrincipal(1L, "admin", Users.Role.ADMIN);
+
+	private final Set<String> revokedJtis = ConcurrentHashMap.newKeySet();
+	private EventStreamService service = create(8);
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void deliversUserEventsOnlyToThatUserAndQueueEventsOnlyToStaff() {
+		RecordingEmitter bob = (RecordingEmitter) service.subscribe(BOB, null);
+		RecordingEmitter admin = (RecordingEmitter) service.subscribe(ADMIN, null);
+
+		service.sendToUsers(List.of(2L), "notification", "hello");
+		service.sendToStaff("borrow-request", "queue");
+
+		await().atMost(2, TimeUnit.SECONDS).until(() -> bob.frames.size() == 2 && admin.frames.size() == 2);
+		assertThat(bob.frames).containsExactly("ready", "notification");
+		assertThat(admin.frames).containsExactly("ready", "borrow-request");
+	}
+
+	@Test
+	void oneHeartbeatReachesEveryConnection() {
+		RecordingEmitter first = (RecordingEmitter) service.subscribe(BOB, null);
+		RecordingEmitter second = (RecordingEmitter) service.subscribe(ADMIN, null);
+
+		service.heartbeat();
+
+		await().atMost(2, TimeUnit.SECONDS).until(() -> first.frames.size() == 2 && second.frames.size() == 2);
+		assertThat(first.frames).last().isEqualTo("heartbeat");
+		assertThat(second.frames).last().isEqualTo("heartbeat");
+	}
+
+	@Test
+	void aClientThatFallsBehindIsDisconnectedWithoutBlockingOthers() {
+		service.shutdown();
+		service = create(2);
+		RecordingEmitter slow = (RecordingEmitter) service.subscribe(BOB, null);
+		slow.blockWrites();
+		RecordingEmitter fast = (RecordingEmitter) service.subscribe(ADMIN, null);
+
+		for (int i = 0; i < 5; i++) {
+			service.sendToUsers(List.of(2L), "notification", i);
+		}
+		await().atMost(2, TimeUnit.SECONDS).until(() -> slow.completed);
+
+		// The slow client's write is still stuck, yet other connections keep receiving
+		service.sendToStaff("borrow-request", 1);
+		await().atMost(2, TimeUnit.SECONDS).until(() -> fast.frames.size() == 2);
+		slow.release();
+		assertThat(service.stats()).containsEntry("connections", 1).containsEntry("disconnectedSlowClients", 1L);
+	}
+
+	@Test
+	void theHeartbeatClosesStreamsWhoseTokenWasRevoked() {
+		Instant now = Instant.now();
+		RecordingEmitter demoted = (RecordingEmitter) service.subscribe(ADMIN, new JwtTokenDetails("t1", now, now.plusSeconds(3600)));
+		RecordingEmitter other = (RecordingEmitter) service.subscribe(BOB, new JwtTokenDetails("t2", now, now.plusSeconds(3600)));
+		revokedJtis.add("t1");
+
+		service.heartbeat();
+		service.sendToStaff("borrow-request", "queue");
+
+		await().atMost(2, TimeUnit.SECONDS).until(() -> demoted.completed && other.frames.size() == 2);
+		assertThat(other.frames).last().isEqualTo("heartbeat");
+		assertThat(demoted.frames).doesNotContain("heartbeat", "borrow-request");
+		assertThat(service.stats()).containsEntry("staffConnections", 0).containsEntry("disconnectedRevoked", 1L);
+	}
+
+	@Test
+	void limitsConnectionsPerUser() {
+		service.shutdown();
+		service = new EventStreamService(Duration.ofMinutes(1), 8, 1, 2, timeout -> new RecordingEmitter(),
+				(user, token) -> true);
+		service.subscribe(BOB, null);
+		service.subscribe(BOB, null);
+
+		assertThatThrownBy(() -> service.subscribe(BOB, null)).isInstanceOf(TooManyRequestsException.class);
+		service.subscribe(ADMIN, null);
+	}
+
+	// -------------------------
+	// Helpers
+	// -------------------------
+	private EventStreamService create(int bufferSize) {
+		return new EventStreamService(Duration.ofMinutes(1), bufferSize, 2, 5, timeout -> new RecordingEmitter(),
+				(user, token) -> !revokedJtis.contains(token.jti()));
+	}
+
+	/**
+	 * Records the event name (or "heartbeat") of each frame instead of writing to a response.
+	 */
+	static class RecordingEmitter extends SseEmitter {
+		final List<String> frames = new CopyOnWriteArrayList<>();
+		volatile boolean completed;
+		private volatile CountDownLatch gate = new CountDownLatch(0);
+
+		void blockWrites() {
+			gate = new CountDownLatch(1);
+		}
+
+		void release() {
+			gate.countDown();
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			String text = builder.build().iterator().next().getData().toString();
+			// The first chunk is "event:<name>\ndata:", or ":heartbeat\n\n" for a comment frame
+			frames.add(text.startsWith(":") ? "heartbeat" : text.lines().findFirst().orElseThrow().substring("event:".length()));
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	}
+}
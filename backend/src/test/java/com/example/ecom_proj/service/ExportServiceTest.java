@@ -0,0 +1,72 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.UnsupportedExportFormatException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+	record Row(Long id, String name) {}
+
+	private EntityManager entityManager;
+	private ExportService exportService;
+
+	@BeforeEach
+	void setUp() {
+		entityManager = mock(EntityManager.class);
+		exportService = new ExportService(entityManager, new ObjectMapper(), mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void csvQuotesFieldsAndDetachesEveryChunk() throws Exception {
+		List<Integer> chunkSizes = new ArrayList<>();
+		ExportService.Columns<Row> columns = new ExportService.Columns<Row>()
+				.add("id", Row::id)
+				.add("name", Row::name);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		exportService.export(
+				() -> LongStream.rangeClosed(1, ExportService.CHUNK_SIZE + 1).mapToObj(id -> new Row(id, id == 1 ? "a, \"b\"" : "r" + id)),
+				ExportService.Format.CSV, columns, chunk -> chunkSizes.add(chunk.size())
+		).writeTo(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertThat(lines).hasSize(ExportService.CHUNK_SIZE + 2);
+		assertThat(lines[0]).isEqualTo("id,name");
+		assertThat(lines[1]).isEqualTo("1,\"a, \"\"b\"\"\"");
+		assertThat(chunkSizes).containsExactly(ExportService.CHUNK_SIZE, 1);
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void ndjsonWritesOneObjectPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		exportService.export(() -> Stream.of(new Row(1L, "x"), new Row(2L, "y")),
+				ExportService.Format.NDJSON, null, null).writeTo(out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8))
+				.isEqualTo("{\"id\":1,\"name\":\"x\"}\n{\"id\":2,\"name\":\"y\"}\n");
+	}
+
+	@Test
+	void unknownFormatIsRejected() {
+		assertThat(ExportService.Format.parse("CSV")).isEqualTo(ExportService.Format.CSV);
+		assertThatThrownBy(() -> ExportService.Format.parse("xml"))
+				.isInstanceOf(UnsupportedExportFormatException.class);
+	}
+}
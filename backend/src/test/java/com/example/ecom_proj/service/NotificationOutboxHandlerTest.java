@@ -0,0 +1,52 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Notification;
+import com.example.ecom_proj.model.OutboxEvent;
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.NotificationRepository;
+import com.example.ecom_proj.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxHandlerTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void writesEveryEventOfTheRoundInOneBatchOfReferences() throws Exception {
+		NotificationRepository notificationRepository = mock(NotificationRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.getReferenceById(any())).thenAnswer(inv -> new Users(inv.getArgument(0), null, null, null));
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		ObjectMapper objectMapper = new ObjectMapper();
+		UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+		NotificationOutboxHandler handler = new NotificationOutboxHandler(notificationRepository, userRepository,
+				objectMapper, transactionManager, unreadCounter, mock(EventStreamPublisher.class));
+
+		handler.handle(List.of(
+				event(objectMapper.writeValueAsString(new NotificationOutboxHandler.Payload(List.of(1L, 4L), "New request"))),
+				event(objectMapper.writeValueAsString(new NotificationOutboxHandler.Payload(List.of(9L), "Approved")))));
+
+		ArgumentCaptor<List<Notification>> batch = ArgumentCaptor.forClass(List.class);
+		verify(notificationRepository, times(1)).saveAll(batch.capture());
+		assertThat(batch.getValue()).extracting(n -> n.getRecipient().getId()).containsExactly(1L, 4L, 9L);
+		assertThat(batch.getValue()).extracting(Notification::getMessage).containsExactly("New request", "New request", "Approved");
+		verify(userRepository, never()).findById(any());
+		verify(unreadCounter).changed(Map.of(1L, 1L, 4L, 1L, 9L, 1L));
+	}
+
+	private static OutboxEvent event(String payload) {
+		return new OutboxEvent(null, NotificationOutboxHandler.TYPE, payload, Instant.now(), Instant.now(), 1, null);
+	}
+}
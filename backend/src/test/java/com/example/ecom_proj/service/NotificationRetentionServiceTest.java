@@ -0,0 +1,70 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class NotificationRetentionServiceTest {
+
+	private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+	private NotificationRepository repository;
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(NotificationRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+
+	@Test
+	void deletesChunkByChunkUntilAShortChunk() {
+		when(repository.deleteReadBefore(CUTOFF, 100)).thenReturn(100, 100, 37);
+
+		long removed = create(NotificationRetentionService.Mode.DELETE, 10).purge(CUTOFF);
+
+		assertThat(removed).isEqualTo(237);
+		verify(repository, times(3)).deleteReadBefore(CUTOFF, 100);
+		verify(transactionManager, times(3)).commit(any()); // one transaction per chunk
+		verify(repository, never()).archiveReadBefore(any(), anyInt());
+	}
+
+	@Test
+	void stopsAfterMaxChunksPerRun() {
+		when(repository.deleteReadBefore(CUTOFF, 100)).thenReturn(100);
+
+		long removed = create(NotificationRetentionService.Mode.DELETE, 3).purge(CUTOFF);
+
+		assertThat(removed).isEqualTo(300);
+		verify(repository, times(3)).deleteReadBefore(CUTOFF, 100);
+	}
+
+	@Test
+	void archiveModeMovesRowsInsteadOfDeleting() {
+		when(repository.archiveReadBefore(CUTOFF, 100)).thenReturn(5);
+
+		NotificationRetentionService service = create(NotificationRetentionService.Mode.ARCHIVE, 10);
+
+		assertThat(service.purge(CUTOFF)).isEqualTo(5);
+		verify(repository, never()).deleteReadBefore(any(), anyInt());
+		assertThat(service.stats()).containsEntry("removed", 5L);
+	}
+
+	// -------------------------
+	// Helpers
+	// -------------------------
+	private NotificationRetentionService create(NotificationRetentionService.Mode mode, int maxChunks) {
+		return new NotificationRetentionService(repository, transactionManager, true, mode, Duration.ofDays(90), 100, maxChunks);
+	}
+}
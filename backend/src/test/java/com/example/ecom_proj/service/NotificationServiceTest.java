@@ -0,0 +1,112 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.dto.PageCursor;
+import com.example.ecom_proj.exceptions.InvalidCursorException;
+import com.example.ecom_proj.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+	private NotificationRepository repository;
+	private OutboxService outboxService;
+	private UnreadNotificationCounter unreadCounter;
+	private NotificationService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(NotificationRepository.class);
+		outboxService = mock(OutboxService.class);
+		unreadCounter = mock(UnreadNotificationCounter.class);
+		service = new NotificationService(repository, mock(UserService.class), outboxService, unreadCounter,
+				mock(EventStreamPublisher.class));
+	}
+
+	@Test
+	void fanOutIsRecordedInTheOutboxInsteadOfWrittenInline() {
+		service.notifyAfterCommit(List.of(1L, 4L), "New borrow request");
+
+		verify(outboxService).enqueue(NotificationOutboxHandler.TYPE,
+				new NotificationOutboxHandler.Payload(List.of(1L, 4L), "New borrow request"));
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void noRecipientsWritesNothing() {
+		service.notifyAfterCommit(List.of(), "New borrow request");
+
+		verify(outboxService, never()).enqueue(anyString(), any());
+	}
+
+	@Test
+	void markingAnUnreadNotificationReadDecrementsTheCountOnce() {
+		when(repository.markReadByIds(3L, List.of(5L))).thenReturn(1, 0);
+
+		service.markAsRead(3L, 5L);
+		service.markAsRead(3L, 5L);
+
+		verify(unreadCounter, times(1)).changed(3L, -1);
+		verify(unreadCounter, never()).changed(3L, 0);
+		verify(repository, never()).findById(any());
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void markingSomeoneElsesNotificationChangesNothing() {
+		when(repository.markReadByIds(4L, List.of(5L))).thenReturn(0);
+
+		service.markAsRead(4L, 5L);
+
+		verify(repository).markReadByIds(4L, List.of(5L));
+		verifyNoInteractions(unreadCounter);
+	}
+
+	@Test
+	void bulkMarkReadByIdsIsOneUpdateAndMovesTheCountByTheRowsChanged() {
+		when(repository.markReadByIds(3L, List.of(5L, 6L, 7L))).thenReturn(2);
+
+		assertThat(service.markAllAsRead(3L, List.of(5L, 6L, 7L), null)).isEqualTo(2);
+
+		verify(unreadCounter).changed(3L, -2);
+		verify(repository, never()).findById(any());
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void bulkMarkReadUpToAnInboxCursor() {
+		LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30);
+		String cursor = new PageCursor("createdAt", Sort.Direction.DESC, createdAt.toString(), 42L).encode();
+		when(repository.markReadUpTo(3L, createdAt, 42L)).thenReturn(10);
+
+		assertThat(service.markAllAsRead(3L, null, cursor)).isEqualTo(10);
+
+		verify(unreadCounter).changed(3L, -10);
+	}
+
+	@Test
+	void bulkMarkReadWithoutIdsOrCursorMarksEverything() {
+		when(repository.markAllRead(3L)).thenReturn(4);
+
+		assertThat(service.markAllAsRead(3L, List.of(), null)).isEqualTo(4);
+
+		verify(unreadCounter).changed(3L, -4);
+	}
+
+	@Test
+	void bulkMarkReadRejectsACursorFromAnotherListing() {
+		String cursor = new PageCursor("name", Sort.Direction.ASC, "Laptop", 42L).encode();
+
+		assertThatThrownBy(() -> service.markAllAsRead(3L, null, cursor)).isInstanceOf(InvalidCursorException.class);
+		verifyNoInteractions(unreadCounter);
+	}
+}
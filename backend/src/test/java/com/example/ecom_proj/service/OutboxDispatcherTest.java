@@ -0,0 +1,155 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.OutboxEvent;
+import com.example.ecom_proj.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+	private OutboxEventRepository repository;
+	private RecordingHandler handler;
+	private OutboxDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(OutboxEventRepository.class);
+		handler = new RecordingHandler();
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		dispatcher = new OutboxDispatcher(repository, List.of(handler), transactionManager, 2, 10, 5,
+				Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(30));
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.shutdown();
+	}
+
+	@Test
+	void deliversDueEventsInOneCallPerTypeAndDeletesThem() {
+		when(repository.lockDue(NOW, 5, 10)).thenReturn(List.of(event(1L, "test", 0), event(2L, "test", 0)));
+
+		assertThat(dispatcher.dispatchBatch(NOW)).isEqualTo(2);
+
+		assertThat(handler.calls).hasSize(1);
+		assertThat(handler.calls.get(0)).extracting(OutboxEvent::getId).containsExactly(1L, 2L);
+		assertThat(handler.calls.get(0)).allMatch(e -> e.getAttempts() == 1 && e.getAvailableAt().equals(NOW.plusSeconds(60)));
+		verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+		verify(repository, never()).reschedule(any(), any(), any());
+	}
+
+	@Test
+	void failedDeliveryIsRescheduledWithBackoffAndKept() {
+		handler.fail = true;
+		when(repository.lockDue(NOW, 5, 10)).thenReturn(List.of(event(1L, "test", 2)));
+
+		dispatcher.dispatchBatch(NOW);
+
+		// third attempt failed: 1s doubled twice
+		verify(repository).reschedule(eq(1L), eq(NOW.plusSeconds(4)), contains("boom"));
+		verify(repository, never()).deleteAllByIdInBatch(any());
+	}
+
+	@Test
+	void aFailedGroupIsRetriedEventByEventSoOneBadEventOnlyFailsItself() {
+		handler.failOn = 2L;
+		when(repository.lockDue(NOW, 5, 10)).thenReturn(List.of(event(1L, "test", 0), event(2L, "test", 0), event(3L, "test", 0)));
+
+		dispatcher.dispatchBatch(NOW);
+
+		assertThat(handler.calls).hasSize(4);
+		verify(repository).deleteAllByIdInBatch(List.of(1L, 3L));
+		verify(repository).reschedule(eq(2L), eq(NOW.plusSeconds(1)), contains("bad event 2"));
+		verify(repository, never()).reschedule(eq(1L), any(), any());
+		verify(repository, never()).reschedule(eq(3L), any(), any());
+	}
+
+	@Test
+	void eventsWithoutAHandlerAreRetriedNotDropped() {
+		when(repository.lockDue(NOW, 5, 10)).thenReturn(List.of(event(1L, "unknown", 0), event(2L, "test", 0)));
+
+		dispatcher.dispatchBatch(NOW);
+
+		verify(repository).deleteAllByIdInBatch(List.of(2L));
+		verify(repository).reschedule(eq(1L), eq(NOW.plusSeconds(1)), contains("No handler"));
+	}
+
+	@Test
+	void pollOnlyWakesTheDispatcherThread() {
+		List<String> threads = new ArrayList<>();
+		when(repository.lockDue(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+			synchronized (threads) {
+				threads.add(Thread.currentThread().getName());
+			}
+			return List.of();
+		});
+
+		dispatcher.poll();
+
+		await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+			synchronized (threads) {
+				assertThat(threads).containsExactly("outbox-dispatcher");
+			}
+		});
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+		assertThat(dispatcher.backoff(20)).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void emptyRoundTouchesNothingElse() {
+		when(repository.lockDue(any(), anyInt(), anyInt())).thenReturn(List.of());
+
+		assertThat(dispatcher.dispatchBatch(NOW)).isZero();
+		verify(repository, never()).deleteAllByIdInBatch(any());
+	}
+
+	// -------------------------
+	// Helpers
+	// -------------------------
+	private static OutboxEvent event(Long id, String type, int attempts) {
+		return new OutboxEvent(id, type, "{}", NOW.minusSeconds(5), NOW.minusSeconds(1), attempts, null);
+	}
+
+	static class RecordingHandler implements OutboxHandler {
+		final List<List<OutboxEvent>> calls = new ArrayList<>();
+		volatile boolean fail;
+		volatile Long failOn;
+
+		@Override
+		public String type() {
+			return "test";
+		}
+
+		@Override
+		public synchronized void handle(List<OutboxEvent> events) {
+			calls.add(List.copyOf(events));
+			if (fail) {
+				throw new IllegalStateException("boom");
+			}
+			if (failOn != null && events.stream().anyMatch(e -> failOn.equals(e.getId()))) {
+				throw new IllegalStateException("bad event " + failOn);
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.exceptions.InvalidCredentialsException;
+import com.example.ecom_proj.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+	private PasswordHashingService service;
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void hashesAndVerifiesOnThePool() {
+		service = new PasswordHashingService(new BCryptPasswordEncoder(4), 1, 4, Duration.ofSeconds(5));
+
+		String hash = service.encode("secret");
+
+		assertThat(service.matches("secret", hash)).isTrue();
+		assertThat(service.matches("other", hash)).isFalse();
+		assertThat(service.stats()).containsEntry("completed", 3L).containsEntry("rejected", 0L);
+	}
+
+	@Test
+	void rejectsWhenThePoolAndQueueAreFull() throws Exception {
+		service = new PasswordHashingService(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> service.call(() -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> service.call(() -> "queued"));
+		while ((int) service.stats().get("queueDepth") == 0) {
+			Thread.onSpinWait();
+		}
+
+		assertThatThrownBy(() -> service.encode("secret")).isInstanceOf(TooManyRequestsException.class);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+		assertThat(service.stats()).containsEntry("rejected", 1L);
+	}
+
+	@Test
+	void rethrowsTheTasksOwnException() {
+		service = new PasswordHashingService(new BCryptPasswordEncoder(4), 1, 1, Duration.ofSeconds(5));
+
+		assertThatThrownBy(() -> service.call(() -> {
+			throw new InvalidCredentialsException("bad");
+		})).isInstanceOf(InvalidCredentialsException.class);
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UnreadNotificationCounterTest {
+
+	private NotificationRepository repository;
+	private UnreadNotificationCounter counter;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(NotificationRepository.class);
+		when(repository.countByRecipientIdAndReadFalse(3L)).thenReturn(4L);
+		counter = new UnreadNotificationCounter(repository, 100, Duration.ofMinutes(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void countsOnceThenFollowsDeltas() {
+		assertThat(counter.get(3L)).isEqualTo(4L);
+
+		counter.changed(3L, 2);
+		counter.changed(3L, -1);
+
+		assertThat(counter.get(3L)).isEqualTo(5L);
+		verify(repository, times(1)).countByRecipientIdAndReadFalse(3L);
+	}
+
+	@Test
+	void deltasWaitForTheCommit() {
+		counter.get(3L);
+		TransactionSynchronizationManager.initSynchronization();
+
+		counter.changed(Map.of(3L, 1L));
+		assertThat(counter.get(3L)).isEqualTo(4L);
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertThat(counter.get(3L)).isEqualTo(5L);
+	}
+
+	@Test
+	void deltasForUncachedUsersAreSkippedAndANegativeCountReloads() {
+		counter.changed(9L, 1);
+		verify(repository, never()).countByRecipientIdAndReadFalse(9L);
+
+		counter.get(3L);
+		counter.changed(3L, -10);
+		assertThat(counter.get(3L)).isEqualTo(4L);
+		verify(repository, times(2)).countByRecipientIdAndReadFalse(3L);
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.ecom_proj.service;
+
+import com.example.ecom_proj.model.Users;
+import com.example.ecom_proj.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+	@Test
+	void loadsEachUserOnceUntilEvicted() {
+		UserRepository repository = mock(UserRepository.class);
+		when(repository.findByUsername("alice")).thenReturn(new Users(7L, "alice", "hash", Users.Role.STAFF));
+		UserCache cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+
+		assertThat(cache.get("alice")).isEqualTo(new UserCache.Snapshot(7L, "alice", Users.Role.STAFF));
+		cache.get("alice");
+		verify(repository, times(1)).findByUsername("alice");
+
+		cache.evict("alice");
+		cache.get("alice");
+		verify(repository, times(2)).findByUsername("alice");
+	}
+
+	@Test
+	void doesNotCacheUnknownUsers() {
+		UserRepository repository = mock(UserRepository.class);
+		UserCache cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+
+		assertThat(cache.get("ghost")).isNull();
+		assertThat(cache.get("ghost")).isNull();
+		verify(repository, times(2)).findByUsername("ghost");
+	}
+
+	@Test
+	void cachesIdsByRoleUntilAnyUserIsEvicted() {
+		UserRepository repository = mock(UserRepository.class);
+		when(repository.findIdsByRole(Users.Role.ADMIN)).thenReturn(List.of(1L, 4L));
+		UserCache cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+
+		assertThat(cache.idsByRole(Users.Role.ADMIN)).containsExactly(1L, 4L);
+		cache.idsByRole(Users.Role.ADMIN);
+		verify(repository, times(1)).findIdsByRole(Users.Role.ADMIN);
+
+		cache.evict("bob");
+		cache.idsByRole(Users.Role.ADMIN);
+		verify(repository, times(2)).findIdsByRole(Users.Role.ADMIN);
+	}
+
+	@Test
+	void snapshotsHoldNoPassword() {
+		UserRepository repository = mock(UserRepository.class);
+		when(repository.findByUsername("alice")).thenReturn(new Users(7L, "alice", "hash", Users.Role.ADMIN));
+		UserCache cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+
+		assertThat(cache.get("alice").toUser().getPassword()).isNull();
+		assertThat(cache.get("alice").toString()).doesNotContain("hash");
+	}
+
+	@Test
+	void refreshReplacesTheSnapshotWithoutAQuery() {
+		UserRepository repository = mock(UserRepository.class);
+		UserCache cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+
+		cache.refresh(new Users(7L, "alice", "hash", Users.Role.VIEWER));
+
+		assertThat(cache.get("alice")).isEqualTo(new UserCache.Snapshot(7L, "alice", Users.Role.VIEWER));
+		verifyNoInteractions(repository);
+	}
+}
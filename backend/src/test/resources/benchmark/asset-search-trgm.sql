@@ -0,0 +1,71 @@
+-- Asset substring search benchmark: sequential scan vs pg_trgm GIN indexes on 1M assets.
+--
+-- Usage (against a scratch database, NOT production):
+--   psql -d inventory-bench -f asset-search-trgm.sql
+--
+-- Builds a throwaway "bench" schema shaped like the Hibernate-generated tables, loads
+-- 1,000 categories and 1,000,000 assets, then runs the exact predicate shape that
+-- AssetSpecification generates for ?searchTerm=... with and without the indexes from schema.sql.
+
+\timing on
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+CREATE TABLE asset_category (id bigserial PRIMARY KEY, name varchar(50) NOT NULL UNIQUE);
+CREATE TABLE asset (
+    id bigserial PRIMARY KEY,
+    name varchar(100) NOT NULL,
+    serial_number varchar(255) NOT NULL UNIQUE,
+    category_id bigint REFERENCES asset_category (id),
+    status varchar(20)
+);
+
+INSERT INTO asset_category (name)
+SELECT 'Category ' || g || ' ' || md5(g::text) FROM generate_series(1, 1000) g;
+
+INSERT INTO asset (name, serial_number, category_id, status)
+SELECT (ARRAY['Laptop','Monitor','Projector','Printer','Router','Phone','Tablet','Dock'])[1 + g % 8]
+           || ' ' || substr(md5(g::text), 1, 10),
+       'SN-' || upper(substr(md5((g * 7)::text), 1, 12)),
+       1 + g % 1000,
+       (ARRAY['AVAILABLE','IN_USE','MAINTENANCE','DAMAGED','RETIRED'])[1 + g % 5]
+FROM generate_series(1, 1000000) g;
+ANALYZE;
+
+-- Same shape as AssetSpecification.withCriteria(searchTerm) ORDER BY id DESC LIMIT 11
+PREPARE search(text) AS
+SELECT a.* FROM asset a
+WHERE (lower(a.name) LIKE $1
+       OR lower(a.serial_number) LIKE $1
+       OR a.category_id IN (SELECT c.id FROM asset_category c WHERE lower(c.name) LIKE $1))
+  AND a.category_id IS NOT NULL
+ORDER BY a.id DESC LIMIT 11;
+
+\echo '--- without trigram indexes ---'
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%3fa9c%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%sn-4b2%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%category 77%');
+
+CREATE INDEX idx_asset_name_trgm ON asset USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_asset_serial_number_trgm ON asset USING gin (lower(serial_number) gin_trgm_ops);
+CREATE INDEX idx_asset_category_name_trgm ON asset_category USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_asset_category_id ON asset (category_id);
+ANALYZE;
+DEALLOCATE search;
+PREPARE search(text) AS
+SELECT a.* FROM asset a
+WHERE (lower(a.name) LIKE $1
+       OR lower(a.serial_number) LIKE $1
+       OR a.category_id IN (SELECT c.id FROM asset_category c WHERE lower(c.name) LIKE $1))
+  AND a.category_id IS NOT NULL
+ORDER BY a.id DESC LIMIT 11;
+
+\echo '--- with trigram indexes ---'
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%3fa9c%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%sn-4b2%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search('%category 77%');
+
+DROP SCHEMA bench CASCADE;
@@ -0,0 +1,20 @@
+-- One round of asset-summary.sql at :rows assets (included twice; not meant to be run on its own).
+TRUNCATE asset;
+INSERT INTO asset (id, name, serial_number, category_id, status, purchase_date, cost, image_url)
+SELECT g, 'Asset ' || g, 'SN-' || g, 1 + g % 50,
+       (ARRAY['AVAILABLE','IN_USE','MAINTENANCE','DAMAGED','RETIRED'])[1 + g % 5],
+       DATE '2020-01-01' + (g % 1500), 100 + (g % 5000), '/uploads/a.png'
+FROM generate_series(1, :rows) g;
+VACUUM ANALYZE asset;
+
+\echo '--- old: every asset with its category ---'
+EXPLAIN (ANALYZE, BUFFERS) SELECT a.*, c.* FROM asset a LEFT JOIN asset_category c ON c.id = a.category_id;
+
+\echo '--- new: count per category ---'
+EXPLAIN (ANALYZE, BUFFERS) SELECT c.name, count(a.id) FROM asset a JOIN asset_category c ON c.id = a.category_id GROUP BY c.name;
+
+\echo '--- new: count and total cost per category x status ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.id, c.name, a.status, count(a.id), sum(a.cost)
+FROM asset a JOIN asset_category c ON c.id = a.category_id
+GROUP BY c.id, c.name, a.status ORDER BY c.name, a.status;
@@ -0,0 +1,36 @@
+-- Asset summary report benchmark: loading every asset (old ReportService.getAssetSummary, findAll + group in Java)
+-- vs the grouped aggregates now used, at 100k and 1M assets.
+--
+-- Usage (against a scratch database, NOT production):
+--   psql -d inventory-bench -f asset-summary.sql
+--
+-- The "findAll" statement is what Hibernate issued for the old code path (every asset row joined to its
+-- category); the Java-side grouping on top of it only adds to that cost.
+
+\timing on
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+CREATE TABLE asset_category (id bigint PRIMARY KEY, name varchar(50) NOT NULL UNIQUE, description varchar(255), icon_url varchar(255));
+CREATE TABLE asset (
+    id bigint PRIMARY KEY,
+    name varchar(100) NOT NULL,
+    serial_number varchar(255) NOT NULL,
+    category_id bigint REFERENCES asset_category (id),
+    status varchar(20),
+    purchase_date date,
+    cost double precision,
+    image_url varchar(255)
+);
+CREATE INDEX idx_asset_category_status ON asset (category_id, status) INCLUDE (cost);
+
+INSERT INTO asset_category (id, name) SELECT g, 'Category ' || g FROM generate_series(1, 50) g;
+
+\set rows 100000
+\ir asset-summary-run.sql
+
+\set rows 1000000
+\ir asset-summary-run.sql
+
+DROP SCHEMA bench CASCADE;